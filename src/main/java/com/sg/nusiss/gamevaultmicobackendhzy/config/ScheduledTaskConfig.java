@@ -1,5 +1,10 @@
 package com.sg.nusiss.gamevaultmicobackendhzy.config;
 
+import com.sg.nusiss.gamevaultmicobackendhzy.service.forum.ForumContentLikeService;
+import com.sg.nusiss.gamevaultmicobackendhzy.service.forum.ForumSearchEngine;
+import com.sg.nusiss.gamevaultmicobackendhzy.service.forum.ForumTrendingService;
+import com.sg.nusiss.gamevaultmicobackendhzy.service.forum.LikeIngestionBuffer;
+import com.sg.nusiss.gamevaultmicobackendhzy.service.forum.ViewCountBuffer;
 import com.sg.nusiss.gamevaultmicobackendhzy.service.forum.ViewTracker;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -19,6 +24,21 @@ public class ScheduledTaskConfig {
     
     @Autowired
     private ViewTracker viewTracker;
+
+    @Autowired
+    private ViewCountBuffer viewCountBuffer;
+
+    @Autowired
+    private ForumSearchEngine searchEngine;
+
+    @Autowired
+    private ForumContentLikeService contentLikeService;
+
+    @Autowired
+    private LikeIngestionBuffer likeBuffer;
+
+    @Autowired
+    private ForumTrendingService trendingService;
     
     /**
      * 每10分钟清理一次过期的浏览记录
@@ -38,5 +58,73 @@ public class ScheduledTaskConfig {
             logger.error("清理过期浏览记录失败", e);
         }
     }
-}
 
+    /**
+     * 定期批量写回缓冲的浏览量（默认每5秒）
+     */
+    @Scheduled(fixedDelayString = "${app.forum.view-count.flush-interval-ms:5000}")
+    public void flushViewCounts() {
+        try {
+            int flushed = viewCountBuffer.flush();
+            if (flushed > 0) {
+                logger.debug("浏览量写回完成 - 帖子数: {}", flushed);
+            }
+        } catch (Exception e) {
+            logger.error("浏览量写回失败", e);
+        }
+    }
+
+    /**
+     * 定期批量写回异步点赞（默认每100毫秒，未开启异步点赞时缓冲区始终为空）
+     */
+    @Scheduled(fixedDelayString = "${app.forum.like.flush-interval-ms:100}")
+    public void flushLikes() {
+        try {
+            int flushed = likeBuffer.flush();
+            if (flushed > 0) {
+                logger.debug("点赞写回完成 - 条数: {}", flushed);
+            }
+        } catch (Exception e) {
+            logger.error("点赞写回失败", e);
+        }
+    }
+
+    /**
+     * 定期重建搜索索引（默认每10分钟，只对进程内索引生效，用于同步其他节点的修改）
+     */
+    @Scheduled(initialDelayString = "${app.forum.search.rebuild-interval-ms:600000}",
+            fixedDelayString = "${app.forum.search.rebuild-interval-ms:600000}")
+    public void rebuildSearchIndex() {
+        try {
+            searchEngine.rebuild();
+        } catch (Exception e) {
+            logger.error("重建搜索索引失败", e);
+        }
+    }
+
+    /**
+     * 定期按关系表对账点赞数（默认启动1分钟后执行，之后每小时一次）
+     */
+    @Scheduled(initialDelayString = "${app.forum.like.reconcile-initial-delay-ms:60000}",
+            fixedDelayString = "${app.forum.like.reconcile-interval-ms:3600000}")
+    public void reconcileLikeCounts() {
+        try {
+            contentLikeService.reconcileAllLikeCounts();
+        } catch (Exception e) {
+            logger.error("点赞数对账失败", e);
+        }
+    }
+
+    /**
+     * 定期从数据库重新计算热门帖子（默认每5分钟，两次计算之间由点赞/回复/浏览事件增量更新）
+     */
+    @Scheduled(initialDelayString = "${app.forum.trending.refresh-interval-ms:300000}",
+            fixedDelayString = "${app.forum.trending.refresh-interval-ms:300000}")
+    public void refreshTrending() {
+        try {
+            trendingService.refresh();
+        } catch (Exception e) {
+            logger.error("计算热门帖子失败", e);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.sg.nusiss.gamevaultmicobackendhzy.constant.forum;
+
+/**
+ * 统计类型名称常量
+ * 对应 metric_definitions 表中的 metric_name，ID 由 ForumTypeRegistry 在启动时解析
+ */
+public class ForumMetricName {
+
+    public static final String VIEW_COUNT = "view_count";
+
+    public static final String LIKE_COUNT = "like_count";
+
+    public static final String REPLY_COUNT = "reply_count";
+
+    // 私有构造函数，防止实例化
+    private ForumMetricName() {
+        throw new AssertionError("Cannot instantiate constants class");
+    }
+}
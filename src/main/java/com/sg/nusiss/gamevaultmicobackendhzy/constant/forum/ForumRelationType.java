@@ -6,6 +6,7 @@ package com.sg.nusiss.gamevaultmicobackendhzy.constant.forum;
  *
  * 注意：这些ID需要与数据库中的实际ID保持一致
  * 可以通过查询 SELECT * FROM relationship_types; 来确认
+ * 业务代码使用 ForumTypeRegistry 从数据库加载的ID，启动时与这里的常量核对
  */
 public class ForumRelationType {
 
@@ -1,16 +1,26 @@
 package com.sg.nusiss.gamevaultmicobackendhzy.controller.forum;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sg.nusiss.gamevaultmicobackendhzy.annotation.forum.RequireForumAuth;
 import com.sg.nusiss.gamevaultmicobackendhzy.dto.forum.PostDTO;
 import com.sg.nusiss.gamevaultmicobackendhzy.dto.forum.PostResponseDTO;
 import com.sg.nusiss.gamevaultmicobackendhzy.dto.forum.ReplyResponseDTO;
+import com.sg.nusiss.gamevaultmicobackendhzy.entity.forum.CountResult;
 import com.sg.nusiss.gamevaultmicobackendhzy.entity.forum.ForumContent;
 import com.sg.nusiss.gamevaultmicobackendhzy.entity.forum.ForumUser;
+import com.sg.nusiss.gamevaultmicobackendhzy.entity.forum.LikeResult;
 import com.sg.nusiss.gamevaultmicobackendhzy.entity.forum.UserContentRelation;
 import com.sg.nusiss.gamevaultmicobackendhzy.service.forum.ForumContentLikeService;
+import com.sg.nusiss.gamevaultmicobackendhzy.service.forum.ForumFanOut;
+import com.sg.nusiss.gamevaultmicobackendhzy.service.forum.ForumMetricService;
 import com.sg.nusiss.gamevaultmicobackendhzy.service.forum.ForumPostService;
 import com.sg.nusiss.gamevaultmicobackendhzy.service.forum.ForumUserService;
+import com.sg.nusiss.gamevaultmicobackendhzy.service.forum.PostHydrator;
+import com.sg.nusiss.gamevaultmicobackendhzy.service.forum.SlowQueryLimiter;
+import com.sg.nusiss.gamevaultmicobackendhzy.service.forum.StreamQueryLimiter;
 import com.sg.nusiss.gamevaultmicobackendhzy.service.forum.ViewTracker;
+import com.sg.nusiss.gamevaultmicobackendhzy.util.forum.FeedCursor;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
@@ -18,14 +28,23 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 
 /**
  * 帖子控制器
@@ -38,6 +57,11 @@ public class ForumPostController {
 
     private static final Logger logger = LoggerFactory.getLogger(ForumPostController.class);
 
+    /** 流式帖子列表每批读取、组装的帖子数 */
+    private static final int STREAM_BATCH_SIZE = 200;
+
+    private static final String STREAM_PERMIT_INTERCEPTOR = ForumPostController.class.getName() + ".streamPermit";
+
     @Autowired
     private ForumPostService postService;
 
@@ -50,25 +74,74 @@ public class ForumPostController {
     @Autowired
     private ViewTracker viewTracker;
 
+    @Autowired
+    private PostHydrator postHydrator;
+
+    @Autowired
+    private SlowQueryLimiter slowQueryLimiter;
+
+    @Autowired
+    private StreamQueryLimiter streamQueryLimiter;
+
+    @Autowired
+    private ForumFanOut fanOut;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     /**
      * 获取帖子列表（分页）
+     * 传入 cursor 参数（首页传空串）时使用游标分页，否则使用页码分页
      */
     @GetMapping
     public ResponseEntity<?> getPostList(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String cursor,
             HttpServletRequest request) {
-        System.out.println("============ GET请求到达了 ============"); // 加这行
-
-        logger.info("获取帖子列表 - 页码: {}, 每页大小: {}", page, size);
+        logger.info("获取帖子列表 - 页码: {}, 每页大小: {}, 游标: {}", page, size, cursor);
 
         Long userId = (Long) request.getAttribute("userId");
 
+        if (cursor != null) {
+            return getPostListByCursor(cursor, size, userId);
+        }
+
         try {
-            List<ForumContent> posts = postService.getPostList(page, size,userId);
-            int totalCount = postService.getPostCount();
+            return getPagedPosts(page, size, userId,
+                    () -> postService.getPostList(page, size, null), postService::getPostCount);
 
-            return getResponseEntity(page, size, posts, totalCount);
+        } catch (Exception e) {
+            logger.error("获取帖子列表失败", e);
+            return createErrorResponse("获取帖子列表失败", e.getMessage());
+        }
+    }
+
+    /**
+     * 游标分页获取帖子列表
+     * 不统计总数，通过 nextCursor 获取下一页，nextCursor 为 null 表示没有更多
+     */
+    private ResponseEntity<?> getPostListByCursor(String cursor, int size, Long userId) {
+        try {
+            List<ForumContent> posts = postService.getPostListByCursor(cursor, size, userId);
+            int pageSize = size <= 0 || size > 100 ? 20 : size;
+            // 多查一条：查到多余的一条才说明还有下一页
+            boolean hasMore = posts.size() > pageSize;
+            if (hasMore) {
+                posts = posts.subList(0, pageSize);
+            }
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("posts", postHydrator.toPostResponses(posts));
+            response.put("pageSize", pageSize);
+            response.put("hasMore", hasMore);
+            response.put("nextCursor", hasMore ? FeedCursor.encode(posts.get(posts.size() - 1)) : null);
+
+            return ResponseEntity.ok(response);
+
+        } catch (IllegalArgumentException e) {
+            logger.warn("参数错误: {}", e.getMessage());
+            return createErrorResponse("参数错误", e.getMessage(), HttpStatus.BAD_REQUEST);
 
         } catch (Exception e) {
             logger.error("获取帖子列表失败", e);
@@ -76,6 +149,30 @@ public class ForumPostController {
         }
     }
 
+    /**
+     * 流式获取全部活跃帖子（按发布时间倒序）
+     * GET /api/forum/posts/stream
+     * 按批读取、组装并写出，内存占用与帖子总数无关
+     */
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamPostList(HttpServletRequest request) {
+        Long userId = (Long) request.getAttribute("userId");
+        logger.info("流式获取帖子列表 - 用户ID: {}", userId);
+
+        return streamJson(request, "帖子列表", json -> {
+            long[] total = {0};
+            json.writeArrayFieldStart("posts");
+            postService.scanActivePosts(STREAM_BATCH_SIZE, userId, batch -> {
+                for (PostResponseDTO dto : postHydrator.toPostResponses(batch)) {
+                    writeValue(json, dto);
+                }
+                total[0] += batch.size();
+            });
+            json.writeEndArray();
+            json.writeNumberField("totalCount", total[0]);
+        });
+    }
+
     /**
      * 根据ID获取帖子详情
      */
@@ -86,13 +183,13 @@ public class ForumPostController {
         try {
             ForumContent post = postService.getPostById(id,userId);
             
-            // 只有登录用户的浏览才计入统计
-            if (userId != null) {
+            // 只有登录用户浏览帖子才计入统计（回复也能按ID查到，但不计浏览量）
+            if (userId != null && post.isPost()) {
                 // 使用ViewTracker防止重复计数
                 boolean shouldIncrement = viewTracker.shouldIncrementView(userId, null, id);
                 
                 if (shouldIncrement) {
-                    postService.incrementViewCount(id);
+                    postService.incrementViewCount(post);
                     logger.debug("浏览量+1 - 帖子ID: {}, 用户ID: {}", id, userId);
                 } else {
                     logger.debug("浏览量不变 - 用户{}在5分钟内重复访问帖子{}", userId, id);
@@ -176,24 +273,33 @@ public class ForumPostController {
 
         logger.info("搜索帖子 - 关键词: {}", keyword);
         Long userId = (Long) request.getAttribute("userId");
+
+        // 搜索是慢查询，限制并发，避免占满连接池拖慢其他接口
+        if (!slowQueryLimiter.tryAcquire()) {
+            logger.warn("搜索请求过多，拒绝 - 关键词: {}", keyword);
+            return createErrorResponse("搜索繁忙", "搜索请求过多，请稍后重试", HttpStatus.SERVICE_UNAVAILABLE);
+        }
         try {
             List<ForumContent> posts = postService.searchPosts(keyword, page, size,userId);
-            int totalCount = postService.getSearchCount(keyword);
+            CountResult totalCount = postService.getSearchCount(keyword, page, size, posts.size());
 
-            List<PostResponseDTO> postDTOs = convertToResponseDTOs(posts);
+            List<PostResponseDTO> postDTOs = postHydrator.toPostResponses(posts);
 
             Map<String, Object> response = new HashMap<>();
             response.put("posts", postDTOs);
             response.put("keyword", keyword);
             response.put("currentPage", page);
             response.put("pageSize", size);
-            response.put("totalCount", totalCount);
+            response.put("totalCount", totalCount.getTotal());
+            response.put("totalIsExact", totalCount.isExact());
 
             return ResponseEntity.ok(response);
 
         } catch (Exception e) {
             logger.error("搜索帖子失败", e);
             return createErrorResponse("搜索帖子失败", e.getMessage());
+        } finally {
+            slowQueryLimiter.release();
         }
     }
 
@@ -245,10 +351,9 @@ public class ForumPostController {
 
         try {
             // 调用 service 获取该用户的帖子
-            List<ForumContent> posts = postService.getPostsByAuthorId(userId, page, size,currentUserId);
-            int totalCount = postService.getPostCountByAuthorId(userId);
-
-            return getResponseEntity(page, size, posts, totalCount);
+            return getPagedPosts(page, size, currentUserId,
+                    () -> postService.getPostsByAuthorId(userId, page, size, null),
+                    () -> postService.getPostCountByAuthorId(userId));
 
         } catch (Exception e) {
             logger.error("获取用户帖子失败", e);
@@ -256,10 +361,31 @@ public class ForumPostController {
         }
     }
 
-    @NotNull
-    private ResponseEntity<?> getResponseEntity(@RequestParam(defaultValue = "0") int page, @RequestParam(defaultValue = "20") int size, List<ForumContent> posts, int totalCount) {
-        List<PostResponseDTO> postDTOs = convertToResponseDTOs(posts);
+    /**
+     * 分页帖子列表：本页帖子与总数并发查询，再并发加载作者信息和当前用户的点赞状态
+     * @param pageQuery 查询本页帖子（不设置点赞状态）
+     */
+    private ResponseEntity<?> getPagedPosts(int page, int size, Long currentUserId,
+                                            Supplier<List<ForumContent>> pageQuery, Supplier<Integer> countQuery) {
+        try (ForumFanOut.Scope scope = fanOut.open()) {
+            ForumFanOut.Task<List<ForumContent>> postsTask = scope.fork(pageQuery);
+            ForumFanOut.Task<Integer> countTask = scope.fork(countQuery);
+            scope.join();
+
+            List<ForumContent> posts = postsTask.get();
+            ForumFanOut.Task<Map<Long, ForumUser>> authorsTask = scope.fork(() -> postHydrator.loadAuthors(posts));
+            scope.fork(() -> {
+                postService.applyLikeStatus(posts, currentUserId);
+                return null;
+            });
+            scope.join();
+
+            return getResponseEntity(page, size, postHydrator.toPostResponses(posts, authorsTask.get()), countTask.get());
+        }
+    }
 
+    @NotNull
+    private ResponseEntity<?> getResponseEntity(@RequestParam(defaultValue = "0") int page, @RequestParam(defaultValue = "20") int size, List<PostResponseDTO> postDTOs, int totalCount) {
         Map<String, Object> response = new HashMap<>();
         response.put("posts", postDTOs);
         response.put("currentPage", page);
@@ -286,8 +412,9 @@ public class ForumPostController {
             }
 
             // 切换点赞状态
-            boolean liked = contentLikeService.toggleLike(postId, userId);
-            int likeCount = contentLikeService.getLikeCount(postId);
+            LikeResult result = contentLikeService.toggleLike(postId, userId);
+            boolean liked = result.isLiked();
+            int likeCount = result.getLikeCount();
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -326,14 +453,14 @@ public class ForumPostController {
                 return createErrorResponse("需要登录", "请先登录再点赞", HttpStatus.UNAUTHORIZED);
             }
 
-            boolean success = contentLikeService.likeContent(postId, userId);
+            LikeResult result = contentLikeService.likeContent(postId, userId);
 
-            if (success) {
+            if (result.isChanged()) {
                 Map<String, Object> response = new HashMap<>();
                 response.put("success", true);
                 response.put("message", "点赞成功");
                 response.put("liked", true);
-                response.put("likeCount", contentLikeService.getLikeCount(postId));
+                response.put("likeCount", result.getLikeCount());
 
                 logger.info("点赞成功 - 帖子ID: {}, 用户ID: {}", postId, userId);
                 return ResponseEntity.ok(response);
@@ -342,7 +469,7 @@ public class ForumPostController {
                 response.put("success", false);
                 response.put("message", "已经点赞过该帖子");
                 response.put("liked", true);
-                response.put("likeCount", contentLikeService.getLikeCount(postId));
+                response.put("likeCount", result.getLikeCount());
 
                 logger.info("重复点赞 - 帖子ID: {}, 用户ID: {}", postId, userId);
                 return ResponseEntity.ok(response);
@@ -376,14 +503,14 @@ public class ForumPostController {
                 return createErrorResponse("需要登录", "请先登录", HttpStatus.UNAUTHORIZED);
             }
 
-            boolean success = contentLikeService.unlikeContent(postId, userId);
+            LikeResult result = contentLikeService.unlikeContent(postId, userId);
 
-            if (success) {
+            if (result.isChanged()) {
                 Map<String, Object> response = new HashMap<>();
                 response.put("success", true);
                 response.put("message", "取消点赞成功");
                 response.put("liked", false);
-                response.put("likeCount", contentLikeService.getLikeCount(postId));
+                response.put("likeCount", result.getLikeCount());
 
                 logger.info("取消点赞成功 - 帖子ID: {}, 用户ID: {}", postId, userId);
                 return ResponseEntity.ok(response);
@@ -392,7 +519,7 @@ public class ForumPostController {
                 response.put("success", false);
                 response.put("message", "未点赞过该帖子");
                 response.put("liked", false);
-                response.put("likeCount", contentLikeService.getLikeCount(postId));
+                response.put("likeCount", result.getLikeCount());
 
                 return ResponseEntity.ok(response);
             }
@@ -468,6 +595,36 @@ public class ForumPostController {
         }
     }
 
+    /**
+     * 流式获取帖子的全部点赞用户
+     * GET /api/forum/posts/{postId}/likes/stream
+     */
+    @GetMapping("/{postId}/likes/stream")
+    public ResponseEntity<StreamingResponseBody> streamLikedUsers(@PathVariable Long postId, HttpServletRequest request) {
+        logger.info("流式获取点赞用户列表 - 帖子ID: {}", postId);
+
+        int likeCount;
+        try {
+            likeCount = contentLikeService.getLikeCount(postId);
+        } catch (Exception e) {
+            logger.error("获取点赞用户失败", e);
+            return streamErrorResponse("获取点赞用户失败", e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+
+        return streamJson(request, "点赞用户", json -> {
+            long[] total = {0};
+            json.writeNumberField("postId", postId);
+            json.writeNumberField("likeCount", likeCount);
+            json.writeArrayFieldStart("userIds");
+            contentLikeService.scanLikedUserIds(postId, likedUserId -> {
+                writeNumber(json, likedUserId);
+                total[0]++;
+            });
+            json.writeEndArray();
+            json.writeNumberField("total", total[0]);
+        });
+    }
+
     /**
      * 获取帖子的最近点赞记录
      * GET /api/forum/posts/{postId}/likes/recent
@@ -544,6 +701,10 @@ public class ForumPostController {
             if (postIds == null || postIds.isEmpty()) {
                 return createErrorResponse("参数错误", "帖子ID列表不能为空", HttpStatus.BAD_REQUEST);
             }
+            if (postIds.size() > ForumMetricService.MAX_BATCH_SIZE) {
+                return createErrorResponse("参数错误",
+                        "帖子ID列表不能超过 " + ForumMetricService.MAX_BATCH_SIZE + " 个", HttpStatus.BAD_REQUEST);
+            }
 
             Map<Long, Integer> likeCounts = contentLikeService.batchGetLikeCounts(postIds);
 
@@ -590,6 +751,32 @@ public class ForumPostController {
         }
     }
 
+    /**
+     * 流式获取当前用户点赞的全部内容ID
+     * GET /api/forum/posts/likes/my/stream
+     */
+    @GetMapping("/likes/my/stream")
+    @RequireForumAuth
+    public ResponseEntity<StreamingResponseBody> streamMyLikedContentIds(HttpServletRequest request) {
+        Long userId = (Long) request.getAttribute("userId");
+        logger.info("流式获取我的点赞 - 用户ID: {}", userId);
+
+        if (userId == null) {
+            return streamErrorResponse("需要登录", "请先登录", HttpStatus.UNAUTHORIZED);
+        }
+
+        return streamJson(request, "我的点赞", json -> {
+            long[] total = {0};
+            json.writeArrayFieldStart("contentIds");
+            contentLikeService.scanUserLikedContentIds(userId, contentId -> {
+                writeNumber(json, contentId);
+                total[0]++;
+            });
+            json.writeEndArray();
+            json.writeNumberField("total", total[0]);
+        });
+    }
+
     /**
      * 获取热门帖子（按点赞数排序）
      * GET /api/forum/posts/likes/popular
@@ -612,6 +799,43 @@ public class ForumPostController {
             return createErrorResponse("获取热门帖子失败", e.getMessage());
         }
     }
+
+    /**
+     * 获取热门帖子（按时间衰减的热度排序）
+     * GET /api/forum/posts/trending?window=24h&limit=20
+     */
+    @GetMapping("/trending")
+    public ResponseEntity<?> getTrendingPosts(
+            @RequestParam(defaultValue = "24h") String window,
+            @RequestParam(defaultValue = "20") int limit,
+            HttpServletRequest request) {
+
+        Long currentUserId = (Long) request.getAttribute("userId");
+        logger.info("获取热门帖子 - 窗口: {}, 限制: {}", window, limit);
+
+        try {
+            if (limit < 1) {
+                throw new IllegalArgumentException("limit 必须大于 0");
+            }
+            List<ForumContent> posts = postService.getTrendingPosts(window, limit, currentUserId);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("posts", postHydrator.toPostResponses(posts));
+            response.put("window", window);
+            response.put("total", posts.size());
+
+            return ResponseEntity.ok(response);
+
+        } catch (IllegalArgumentException e) {
+            logger.warn("参数错误: {}", e.getMessage());
+            return createErrorResponse("参数错误", e.getMessage(), HttpStatus.BAD_REQUEST);
+
+        } catch (Exception e) {
+            logger.error("获取热门帖子失败", e);
+            return createErrorResponse("获取热门帖子失败", e.getMessage());
+        }
+    }
+
     /**
      * 获取帖子的回复列表
      * GET /api/forum/posts/{postId}/replies
@@ -627,32 +851,20 @@ public class ForumPostController {
             // 获取当前用户ID
             Long currentUserId = (Long) request.getAttribute("userId");
 
-            // 获取回复列表 (ForumContent 实体)
-            List<ForumContent> replies = postService.getRepliesByPostId(postId, page, size, currentUserId);
-
-            // 🔥 转换为 DTO 列表
-            List<ReplyResponseDTO> replyDTOs = new ArrayList<>();
-
-            for (ForumContent reply : replies) {
-                // 获取回复作者信息
-                ForumUser author = userService.getUserById(reply.getAuthorId());
-
-                // 🔥 如果是楼中楼回复，获取被回复用户的信息
-                ForumUser replyToUser = null;
-                if (reply.getReplyTo() != null) {
-                    ForumContent targetReply = postService.getContentById(reply.getReplyTo());
-                    if (targetReply != null) {
-                        replyToUser = userService.getUserById(targetReply.getAuthorId());
-                    }
-                }
-
-                // 创建 DTO
-                ReplyResponseDTO dto = ReplyResponseDTO.fromContentAndUsers(reply, author, replyToUser);
-                replyDTOs.add(dto);
+            // 回复列表与总数并发查询
+            List<ForumContent> replies;
+            int total;
+            try (ForumFanOut.Scope scope = fanOut.open()) {
+                ForumFanOut.Task<List<ForumContent>> repliesTask =
+                        scope.fork(() -> postService.getRepliesByPostId(postId, page, size, currentUserId));
+                ForumFanOut.Task<Integer> totalTask = scope.fork(() -> postService.getReplyCountByPostId(postId));
+                scope.join();
+                replies = repliesTask.get();
+                total = totalTask.get();
             }
 
-            // 统计总数
-            int total = postService.getReplyCountByPostId(postId);
+            // 🔥 转换为 DTO 列表
+            List<ReplyResponseDTO> replyDTOs = postHydrator.toReplyResponses(replies);
 
             Map<String, Object> response = new HashMap<>();
             response.put("replies", replyDTOs);  // 🔥 返回 DTO 列表
@@ -791,18 +1003,98 @@ public class ForumPostController {
     // ==================== 辅助方法 ====================
 
     /**
-     * 转换为响应 DTO 列表
+     * 流式 JSON 响应体：写入顶层对象的字段
      */
-    private List<PostResponseDTO> convertToResponseDTOs(List<ForumContent> posts) {
-        List<PostResponseDTO> postDTOs = new ArrayList<>();
-        for (ForumContent post : posts) {
-            ForumUser author = getUserSafely(post.getAuthorId());
-            PostResponseDTO dto = PostResponseDTO.fromContentAndUser(post, author);
-            postDTOs.add(dto);
+    @FunctionalInterface
+    private interface JsonFields {
+        void write(JsonGenerator json) throws IOException;
+    }
+
+    /**
+     * 以流式 JSON 对象响应，边读边写，不在内存中构建完整结果
+     * 读取期间占用一个数据库连接，使用单独的流式并发限制，拿不到许可时返回 503
+     *
+     * 许可只归还一次：响应体开始执行后由响应体在结束时归还；
+     * 响应体没有执行（请求在此之前超时、出错或断开）时由异步请求的完成回调归还
+     */
+    private ResponseEntity<StreamingResponseBody> streamJson(HttpServletRequest request, String name, JsonFields fields) {
+        if (!streamQueryLimiter.tryAcquire()) {
+            logger.warn("流式请求过多，拒绝 - {}", name);
+            return streamErrorResponse("服务繁忙", "请求过多，请稍后重试", HttpStatus.SERVICE_UNAVAILABLE);
+        }
+
+        // 响应体与完成回调谁先拿到 claimed，许可就由谁归还
+        AtomicBoolean claimed = new AtomicBoolean();
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(STREAM_PERMIT_INTERCEPTOR,
+                new CallableProcessingInterceptor() {
+                    @Override
+                    public <T> void afterCompletion(NativeWebRequest webRequest, Callable<T> task) {
+                        if (claimed.compareAndSet(false, true)) {
+                            logger.warn("流式输出{}未执行，归还许可", name);
+                            streamQueryLimiter.release();
+                        }
+                    }
+                });
+
+        StreamingResponseBody body = out -> {
+            if (!claimed.compareAndSet(false, true)) {
+                return;
+            }
+            try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+                json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                json.writeStartObject();
+                fields.write(json);
+                json.writeEndObject();
+            } catch (RuntimeException e) {
+                // 写出失败（多为客户端断开）经 MyBatis 回调抛出时会被包装，按原因链区分
+                for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+                    if (cause instanceof UncheckedIOException) {
+                        logger.warn("流式输出{}中断: {}", name, cause.getCause().getMessage());
+                        throw ((UncheckedIOException) cause).getCause();
+                    }
+                }
+                logger.error("流式输出{}失败", name, e);
+                throw new IOException("流式输出" + name + "失败", e);
+            } finally {
+                streamQueryLimiter.release();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    /**
+     * 流式接口的错误响应（声明类型须为 StreamingResponseBody 才会按流式处理，错误体也以此写出）
+     */
+    private ResponseEntity<StreamingResponseBody> streamErrorResponse(String error, String message, HttpStatus status) {
+        Map<String, Object> errorResponse = createErrorResponse(error, message, status).getBody();
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> objectMapper.writeValue(out, errorResponse));
+    }
+
+    /**
+     * 在不能抛出受检异常的回调中写出一个对象
+     */
+    private static void writeValue(JsonGenerator json, Object value) {
+        try {
+            json.writeObject(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 在不能抛出受检异常的回调中写出一个数字
+     */
+    private static void writeNumber(JsonGenerator json, long value) {
+        try {
+            json.writeNumber(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
-        return postDTOs;
     }
 
+
     /**
      * 安全获取用户信息
      */
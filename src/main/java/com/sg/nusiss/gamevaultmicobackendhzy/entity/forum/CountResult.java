@@ -0,0 +1,18 @@
+package com.sg.nusiss.gamevaultmicobackendhzy.entity.forum;
+
+import lombok.Getter;
+
+/**
+ * 分页总数
+ * exact 为 false 时 total 来自缓存，可能与数据库当前值有偏差
+ */
+@Getter
+public class CountResult {
+    private final int total;
+    private final boolean exact;
+
+    public CountResult(int total, boolean exact) {
+        this.total = total;
+        this.exact = exact;
+    }
+}
@@ -0,0 +1,17 @@
+package com.sg.nusiss.gamevaultmicobackendhzy.entity.forum;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * 点赞/取消点赞/切换的执行结果（由单条 SQL 返回）
+ */
+@Setter
+@Getter
+public class LikeResult {
+    private boolean changed;    // 本次是否改变了点赞状态
+    private boolean liked;      // 执行后的点赞状态
+    private int likeCount;      // 执行后的点赞数
+
+    public LikeResult() {}
+}
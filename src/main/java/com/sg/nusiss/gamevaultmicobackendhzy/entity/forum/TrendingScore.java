@@ -0,0 +1,16 @@
+package com.sg.nusiss.gamevaultmicobackendhzy.entity.forum;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * 帖子热度（按时间衰减后的加权互动数）
+ */
+@Setter
+@Getter
+public class TrendingScore {
+    private Long contentId;
+    private double score;
+
+    public TrendingScore() {}
+}
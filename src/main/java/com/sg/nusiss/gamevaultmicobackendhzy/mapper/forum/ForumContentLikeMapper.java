@@ -2,9 +2,12 @@ package com.sg.nusiss.gamevaultmicobackendhzy.mapper.forum;
 
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
+import com.sg.nusiss.gamevaultmicobackendhzy.entity.forum.LikeResult;
 import com.sg.nusiss.gamevaultmicobackendhzy.entity.forum.UserContentRelation;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * 内容点赞 Mapper（使用 user_content_relations 表）
@@ -29,6 +32,38 @@ public interface ForumContentLikeMapper {
             @Param("relationType") Long relationType
     );
 
+    /**
+     * 点赞（单条语句：插入关系、更新点赞计数、返回新的点赞数）
+     * metricId 为 like_count 的统计类型ID
+     * 已点赞时不做任何修改，changed 为 false
+     */
+    LikeResult like(
+            @Param("userId") Long userId,
+            @Param("contentId") Long contentId,
+            @Param("relationType") Long relationType,
+            @Param("metricId") Long metricId
+    );
+
+    /**
+     * 取消点赞（单条语句），未点赞时 changed 为 false
+     */
+    LikeResult unlike(
+            @Param("userId") Long userId,
+            @Param("contentId") Long contentId,
+            @Param("relationType") Long relationType,
+            @Param("metricId") Long metricId
+    );
+
+    /**
+     * 切换点赞状态（单条语句）：已点赞则删除，否则插入
+     */
+    LikeResult toggle(
+            @Param("userId") Long userId,
+            @Param("contentId") Long contentId,
+            @Param("relationType") Long relationType,
+            @Param("metricId") Long metricId
+    );
+
     /**
      * 查找点赞关系
      */
@@ -65,6 +100,34 @@ public interface ForumContentLikeMapper {
             @Param("relationType") Long relationType
     );
 
+    /**
+     * 逐行读取某内容的全部点赞用户ID（按点赞时间倒序），需在事务中调用
+     */
+    void scanUserIdsByContentAndType(
+            @Param("contentId") Long contentId,
+            @Param("relationType") Long relationType,
+            ResultHandler<Long> handler
+    );
+
+    /**
+     * 批量建立关系（多行 INSERT，已存在或内容不存在的跳过）
+     * @return 实际插入的关系（只含 userId、contentId）
+     */
+    List<UserContentRelation> batchInsertRelations(@Param("relations") List<UserContentRelation> relations,
+                                                   @Param("relationType") Long relationType);
+
+    /**
+     * 批量删除关系（多行 DELETE）
+     * @return 实际删除的关系（只含 userId、contentId）
+     */
+    List<UserContentRelation> batchDeleteRelations(@Param("relations") List<UserContentRelation> relations,
+                                                   @Param("relationType") Long relationType);
+
+    /**
+     * 读取全部关系类型（type_name -> type_id），启动时由 ForumTypeRegistry 加载
+     */
+    List<Map<String, Object>> findRelationTypes();
+
     /**
      * 获取用户点赞的所有内容ID
      */
@@ -73,6 +136,24 @@ public interface ForumContentLikeMapper {
             @Param("relationType") Long relationType
     );
 
+    /**
+     * 逐行读取用户点赞的全部内容ID（按点赞时间倒序），需在事务中调用
+     */
+    void scanContentIdsByUserAndTypeOrderByDate(
+            @Param("userId") Long userId,
+            @Param("relationType") Long relationType,
+            ResultHandler<Long> handler
+    );
+
+    /**
+     * 逐行读取用户关联的全部内容ID（不排序），用于加载点赞位图
+     */
+    void scanContentIdsByUserAndType(
+            @Param("userId") Long userId,
+            @Param("relationType") Long relationType,
+            ResultHandler<Long> handler
+    );
+
     /**
      * 批量检查用户对多个内容的点赞状态
      */
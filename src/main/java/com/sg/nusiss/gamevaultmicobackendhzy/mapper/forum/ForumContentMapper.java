@@ -2,7 +2,11 @@ package com.sg.nusiss.gamevaultmicobackendhzy.mapper.forum;
 
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
 import com.sg.nusiss.gamevaultmicobackendhzy.entity.forum.ForumContent;
+import com.sg.nusiss.gamevaultmicobackendhzy.entity.forum.TrendingScore;
+
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -43,6 +47,17 @@ public interface ForumContentMapper {
      */
     List<ForumContent> findActivePosts(@Param("offset") int offset, @Param("limit") int limit);
 
+    /**
+     * 查询活跃帖子（游标分页）
+     * 按 (created_date, content_id) 倒序，从游标位置之后开始读取
+     * @param cursorDate 游标中的创建时间，为 null 时从第一条开始
+     * @param cursorId 游标中的内容ID
+     * @param limit 限制数量
+     */
+    List<ForumContent> findActivePostsBefore(@Param("cursorDate") LocalDateTime cursorDate,
+                                             @Param("cursorId") Long cursorId,
+                                             @Param("limit") int limit);
+
     /**
      * 统计活跃帖子总数
      */
@@ -68,6 +83,23 @@ public interface ForumContentMapper {
      */
     int countSearchPosts(@Param("keyword") String keyword);
 
+    /**
+     * 按ID批量查询帖子摘要（读 post_summary，顺序不保证）
+     */
+    List<ForumContent> findSummariesByIds(@Param("contentIds") List<Long> contentIds);
+
+    /**
+     * 逐行读取全部活跃帖子（只含 contentId、title、bodyPlain、authorId、createdDate 和统计数据），用于构建搜索索引
+     * 需在事务中调用，结果按 fetchSize 分批从数据库拉取
+     */
+    void scanActivePostsForIndex(ResultHandler<ForumContent> handler);
+
+    /**
+     * 逐行读取全部活跃帖子（列表字段，按发布时间倒序），用于流式输出帖子列表
+     * 需在事务中调用，结果按 fetchSize 分批从数据库拉取
+     */
+    void scanActivePosts(ResultHandler<ForumContent> handler);
+
     // ==================== 层级结构查询 ====================
 
     /**
@@ -76,7 +108,8 @@ public interface ForumContentMapper {
     List<ForumContent> findChildren(
             @Param("parentId") Long parentId,
             @Param("offset") int offset,
-            @Param("limit") int limit
+            @Param("limit") int limit,
+            @Param("likeMetricId") Long likeMetricId
     );
 
     /**
@@ -84,6 +117,11 @@ public interface ForumContentMapper {
      */
     int countChildren(@Param("parentId") Long parentId);
 
+    /**
+     * 批量查询内容的作者ID（只返回 contentId 和 authorId，用于楼中楼回复对象）
+     */
+    List<ForumContent> findAuthorIdsByContentIds(@Param("contentIds") List<Long> contentIds);
+
     // ==================== 统计相关 ====================
 
     /**
@@ -127,4 +165,20 @@ public interface ForumContentMapper {
      * 统计用户的活跃帖子数（未删除）
      */
     int countActiveByAuthorId(@Param("authorId") Long authorId);
-}
\ No newline at end of file
+
+    /**
+     * 按ID顺序分批读取内容ID（用于全量对账）
+     */
+    List<Long> findContentIdsAfter(@Param("afterId") Long afterId, @Param("limit") int limit);
+
+    /**
+     * 计算时间窗口内有互动的帖子热度
+     * 每次点赞、回复按权重计分，浏览量按帖子发布时间计分，分数按事件距今时间以 halfLifeSeconds 为半衰期衰减
+     */
+    List<TrendingScore> findTrendingScores(@Param("windowSeconds") long windowSeconds,
+                                           @Param("halfLifeSeconds") double halfLifeSeconds,
+                                           @Param("likeType") Long likeType,
+                                           @Param("likeWeight") double likeWeight,
+                                           @Param("replyWeight") double replyWeight,
+                                           @Param("viewWeight") double viewWeight);
+}
@@ -2,6 +2,7 @@ package com.sg.nusiss.gamevaultmicobackendhzy.mapper.forum;
 
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
 import com.sg.nusiss.gamevaultmicobackendhzy.entity.forum.ContentMetric;
 import java.util.List;
 import java.util.Map;
@@ -13,6 +14,13 @@ import java.util.Map;
 @Mapper
 public interface ForumMetricMapper {
 
+    // ==================== 类型定义 ====================
+
+    /**
+     * 读取全部统计类型（metric_name -> metric_id），启动时由 ForumTypeRegistry 加载
+     */
+    List<Map<String, Object>> findMetricDefinitions();
+
     // ==================== 基础操作 ====================
 
     /**
@@ -23,27 +31,44 @@ public interface ForumMetricMapper {
     /**
      * 增加统计值
      * @param contentId 内容ID
-     * @param metricName 统计类型名称（view_count, like_count等）
+     * @param metricId 统计类型ID（由 ForumTypeRegistry 解析）
      * @param increment 增加数量
      */
     int incrementMetric(@Param("contentId") Long contentId,
-                        @Param("metricName") String metricName,
+                        @Param("metricId") Long metricId,
                         @Param("increment") int increment);
 
+    /**
+     * 批量增加同一统计类型的值（单条多行 UPSERT）
+     * @param deltas Map<contentId, 增加数量>
+     * @param metricId 统计类型ID
+     */
+    int batchIncrementMetric(@Param("deltas") Map<Long, Integer> deltas,
+                             @Param("metricId") Long metricId);
+
     /**
      * 设置统计值
      */
     int setMetricValue(@Param("contentId") Long contentId,
-                       @Param("metricName") String metricName,
+                       @Param("metricId") Long metricId,
                        @Param("value") int value);
 
+    /**
+     * 在一条语句中批量设置、批量增加多个内容的多个统计值
+     * 同一 (内容, 统计类型) 在两个列表中最多出现一次
+     * @param sets 要设置的值（metricValue 为新值），可为空
+     * @param increments 要增加的值（metricValue 为增量，结果不小于0），可为空
+     */
+    int batchUpsertMetrics(@Param("sets") List<ContentMetric> sets,
+                           @Param("increments") List<ContentMetric> increments);
+
     // ==================== 查询操作 ====================
 
     /**
      * 获取单个统计值
      */
     Integer getMetricValue(@Param("contentId") Long contentId,
-                           @Param("metricName") String metricName);
+                           @Param("metricId") Long metricId);
 
     /**
      * 获取内容的所有统计数据
@@ -52,17 +77,32 @@ public interface ForumMetricMapper {
     Map<String, Integer> getContentMetrics(@Param("contentId") Long contentId);
 
     /**
-     * 批量获取多个内容的统计数据
-     * @param contentIds 内容ID列表
-     * @param metricName 统计类型名称
-     * @return Map<contentId, metricValue>
+     * 逐行读取多个内容的多个统计值（一条查询，不存在的统计行不返回）
+     * @param contentIds 内容ID
+     * @param metricIds 统计类型ID
+     * @param handler 每行回调一次（只填充 contentId、metricId、metricValue）
      */
-    Map<Long, Integer> getBatchMetrics(@Param("contentIds") List<Long> contentIds,
-                                       @Param("metricName") String metricName);
+    void scanMetrics(@Param("contentIds") Long[] contentIds,
+                     @Param("metricIds") Long[] metricIds,
+                     ResultHandler<ContentMetric> handler);
 
     /**
      * 查询热门内容（按统计值排序）
      */
-    List<Long> findTopContentsByMetric(@Param("metricName") String metricName,
+    List<Long> findTopContentsByMetric(@Param("metricId") Long metricId,
                                        @Param("limit") int limit);
-}
\ No newline at end of file
+
+    /**
+     * 锁定内容的点赞计数行（SELECT ... FOR UPDATE），对账期间并发点赞在计数更新处等待
+     */
+    List<Long> lockLikeCounts(@Param("contentIds") List<Long> contentIds,
+                              @Param("metricId") Long metricId);
+
+    /**
+     * 按关系表重新计算点赞数，只写入与实际不符（或缺失）的计数行
+     * @return 被修正的内容ID
+     */
+    List<Long> reconcileLikeCounts(@Param("contentIds") List<Long> contentIds,
+                                   @Param("relationType") Long relationType,
+                                   @Param("metricId") Long metricId);
+}
@@ -0,0 +1,71 @@
+package com.sg.nusiss.gamevaultmicobackendhzy.mapper.forum;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 帖子摘要 Mapper 接口
+ * 维护 post_summary 读模型（标题、摘要、作者、计数器），供列表查询直接使用
+ */
+@Mapper
+public interface ForumPostSummaryMapper {
+
+    // ==================== 内容同步 ====================
+
+    /**
+     * 根据 contents 中的帖子生成摘要行
+     */
+    int insertFromContent(@Param("contentId") Long contentId);
+
+    /**
+     * 帖子编辑后同步标题和摘要
+     */
+    int refreshContent(@Param("contentId") Long contentId);
+
+    /**
+     * 删除摘要（帖子被删除时）
+     */
+    int deleteById(@Param("contentId") Long contentId);
+
+    /**
+     * 是否为有摘要行的帖子（已删除的帖子和回复返回 false）
+     */
+    boolean existsById(@Param("contentId") Long contentId);
+
+    // ==================== 计数器 ====================
+
+    /**
+     * 增加浏览数
+     */
+    int incrementViewCount(@Param("contentId") Long contentId, @Param("delta") int delta);
+
+    /**
+     * 批量增加浏览数
+     * @param deltas Map<contentId, 增加数量>
+     */
+    int batchIncrementViewCount(@Param("deltas") Map<Long, Integer> deltas);
+
+    /**
+     * 增加（或减少）点赞数
+     */
+    int incrementLikeCount(@Param("contentId") Long contentId, @Param("delta") int delta);
+
+    /**
+     * 增加（或减少）回复数
+     */
+    int incrementReplyCount(@Param("contentId") Long contentId, @Param("delta") int delta);
+
+    /**
+     * 设置点赞数（用于校准）
+     */
+    int updateLikeCount(@Param("contentId") Long contentId, @Param("likeCount") int likeCount);
+
+    /**
+     * 从 content_metrics 同步点赞数（只更新不一致的行）
+     */
+    int syncLikeCountsFromMetrics(@Param("contentIds") List<Long> contentIds,
+                                  @Param("metricId") Long metricId);
+}
@@ -0,0 +1,31 @@
+package com.sg.nusiss.gamevaultmicobackendhzy.service.forum;
+
+import com.sg.nusiss.gamevaultmicobackendhzy.entity.forum.ForumContent;
+import com.sg.nusiss.gamevaultmicobackendhzy.mapper.forum.ForumContentMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * 数据库搜索后端（默认）
+ * 使用 contents.search_vector 全文检索和三元组索引，索引由数据库自动维护
+ */
+@Service
+@ConditionalOnProperty(prefix = "app.forum.search", name = "engine", havingValue = "database", matchIfMissing = true)
+public class DatabaseSearchEngine implements ForumSearchEngine {
+
+    @Autowired
+    private ForumContentMapper contentMapper;
+
+    @Override
+    public List<ForumContent> search(String keyword, int offset, int limit) {
+        return contentMapper.searchPosts(keyword, offset, limit);
+    }
+
+    @Override
+    public int count(String keyword) {
+        return contentMapper.countSearchPosts(keyword);
+    }
+}
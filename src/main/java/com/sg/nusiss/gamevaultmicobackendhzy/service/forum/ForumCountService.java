@@ -0,0 +1,157 @@
+package com.sg.nusiss.gamevaultmicobackendhzy.service.forum;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sg.nusiss.gamevaultmicobackendhzy.entity.forum.CountResult;
+import com.sg.nusiss.gamevaultmicobackendhzy.mapper.forum.ForumContentMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 分页总数服务
+ *
+ * 1. 帖子总数、作者帖子数、帖子回复数：首次使用时 COUNT 一次，之后由写路径增减，
+ *    过期后重新 COUNT（纠正其他节点写入造成的偏差）
+ * 2. 搜索结果数：当前页不满时由 offset + 本页条数直接得出；否则先用缓存值（非精确），
+ *    缓存没有时才执行 COUNT
+ */
+@Service
+public class ForumCountService {
+
+    private static final String FEED_KEY = "feed";
+    private static final String AUTHOR_KEY_PREFIX = "author:";
+    private static final String REPLY_KEY_PREFIX = "replies:";
+
+    @Autowired
+    private ForumContentMapper contentMapper;
+
+    @Autowired
+    private ForumSearchEngine searchEngine;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.forum.count-cache.maximum-size:10000}")
+    private long maximumSize;
+
+    @Value("${app.forum.count-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${app.forum.count-cache.search-ttl-seconds:60}")
+    private long searchTtlSeconds;
+
+    /** feed / author:{id} / replies:{id} -> 计数 */
+    private Cache<String, AtomicInteger> counters;
+
+    /** 规范化后的关键词 -> 结果数 */
+    private Cache<String, Integer> searchCounts;
+
+    @PostConstruct
+    public void initCache() {
+        counters = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        searchCounts = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(searchTtlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, counters, "forum.counts");
+        CaffeineCacheMetrics.monitor(meterRegistry, searchCounts, "forum.search-counts");
+    }
+
+    // ==================== 读取 ====================
+
+    /**
+     * 活跃帖子总数
+     */
+    public int getPostCount() {
+        return get(FEED_KEY, contentMapper::countActivePosts);
+    }
+
+    /**
+     * 作者的活跃帖子数
+     */
+    public int getAuthorPostCount(Long authorId) {
+        return get(AUTHOR_KEY_PREFIX + authorId, () -> contentMapper.countActiveByAuthorId(authorId));
+    }
+
+    /**
+     * 帖子的回复数
+     */
+    public int getReplyCount(Long postId) {
+        return get(REPLY_KEY_PREFIX + postId, () -> contentMapper.countChildren(postId));
+    }
+
+    /**
+     * 搜索结果数
+     * @param keyword 已去除首尾空白的关键词
+     * @param offset 当前页偏移量
+     * @param pageSize 每页大小
+     * @param returned 当前页实际返回条数
+     */
+    public CountResult getSearchCount(String keyword, int offset, int pageSize, int returned) {
+        String key = keyword.toLowerCase(Locale.ROOT);
+
+        // 当前页不满：已经到最后一页，总数可以直接算出
+        if (returned < pageSize && (returned > 0 || offset == 0)) {
+            int total = offset + returned;
+            searchCounts.put(key, total);
+            return new CountResult(total, true);
+        }
+
+        Integer cached = searchCounts.getIfPresent(key);
+        if (cached != null) {
+            return new CountResult(Math.max(cached, offset + returned), false);
+        }
+
+        int total = searchEngine.count(keyword);
+        searchCounts.put(key, total);
+        return new CountResult(total, true);
+    }
+
+    // ==================== 写路径维护 ====================
+
+    public void onPostCreated(Long authorId) {
+        adjust(FEED_KEY, 1);
+        adjust(AUTHOR_KEY_PREFIX + authorId, 1);
+    }
+
+    public void onPostDeleted(Long authorId) {
+        adjust(FEED_KEY, -1);
+        adjust(AUTHOR_KEY_PREFIX + authorId, -1);
+    }
+
+    public void onReplyCreated(Long postId) {
+        adjust(REPLY_KEY_PREFIX + postId, 1);
+    }
+
+    public void onReplyDeleted(Long postId) {
+        adjust(REPLY_KEY_PREFIX + postId, -1);
+    }
+
+    private int get(String key, Supplier<Integer> loader) {
+        return counters.get(key, k -> new AtomicInteger(loader.get())).get();
+    }
+
+    /**
+     * 只调整已缓存的计数，未缓存的下次读取时会重新 COUNT
+     */
+    private void adjust(String key, int delta) {
+        AtomicInteger counter = counters.getIfPresent(key);
+        if (counter != null) {
+            counter.updateAndGet(value -> Math.max(0, value + delta));
+        }
+    }
+}
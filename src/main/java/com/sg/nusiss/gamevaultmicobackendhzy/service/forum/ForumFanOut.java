@@ -0,0 +1,208 @@
+package com.sg.nusiss.gamevaultmicobackendhzy.service.forum;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 同一请求内互不依赖的查询并发执行
+ *
+ * 1. 每个请求打开一个 Scope，fork 的任务并发执行，join 等待全部完成，耗时为最慢的一个而不是总和
+ * 2. 任一任务失败时取消其余任务并抛出该任务的异常；超过 timeout-ms 时取消全部任务
+ *    （取消会中断任务线程，尚未开始的任务不再执行；已发出的 JDBC 语句仍会执行完）
+ * 3. Scope 关闭时取消仍未完成的任务（未 join 或 join 抛出异常的情况）
+ * 4. 默认使用有界线程池，队列满时在调用线程中直接执行；
+ *    开启 spring.threads.virtual.enabled 且运行时为 Java 21+ 时改为每个任务一个虚拟线程，并发数同样受 threads 限制
+ *
+ * 任务在其他线程执行，不能依赖请求线程上的 ThreadLocal（事务、RequestContextHolder 等）
+ */
+@Component
+public class ForumFanOut {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.forum.fan-out.threads:16}")
+    private int threads;
+
+    @Value("${app.forum.fan-out.queue-capacity:256}")
+    private int queueCapacity;
+
+    @Value("${app.forum.fan-out.timeout-ms:5000}")
+    private long timeoutMs;
+
+    @Autowired
+    private Environment environment;
+
+    private Executor executor;
+
+    private ExecutorService threadPool;
+
+    @PostConstruct
+    public void init() {
+        // 与 Spring Boot 相同的判断：配置开启且运行时支持虚拟线程（Java 17 上忽略该配置）
+        if (Threading.VIRTUAL.isActive(environment)) {
+            SimpleAsyncTaskExecutor virtual = new SimpleAsyncTaskExecutor("forum-fan-out-");
+            virtual.setVirtualThreads(true);
+            virtual.setConcurrencyLimit(threads * 4);
+            executor = virtual;
+            return;
+        }
+
+        AtomicInteger sequence = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "forum-fan-out-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        pool.allowCoreThreadTimeOut(true);
+        threadPool = ExecutorServiceMetrics.monitor(meterRegistry, pool, "forum.fan-out");
+        executor = threadPool;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (threadPool != null) {
+            threadPool.shutdownNow();
+        }
+    }
+
+    /**
+     * 打开一个请求范围，截止时间为 now + timeout-ms
+     */
+    public Scope open() {
+        return new Scope(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs));
+    }
+
+    /**
+     * 一个请求内的并发任务
+     */
+    public final class Scope implements AutoCloseable {
+
+        private final long deadlineNanos;
+        private final List<FutureTask<?>> futures = new ArrayList<>();
+
+        // 按完成顺序收到的任务，join 据此尽早发现失败
+        private final BlockingQueue<FutureTask<?>> completed = new LinkedBlockingQueue<>();
+        private int collected;
+
+        private Scope(long deadlineNanos) {
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        /**
+         * 提交一个任务，join 之后通过 Task.get() 取结果
+         */
+        public <T> Task<T> fork(Supplier<T> supplier) {
+            FutureTask<T> future = new FutureTask<>(supplier::get) {
+                @Override
+                protected void done() {
+                    completed.add(this);
+                }
+            };
+            futures.add(future);
+            executor.execute(future);
+            return new Task<>(future);
+        }
+
+        /**
+         * 等待已提交的全部任务完成
+         * 任务抛出的 RuntimeException 原样抛出，超时抛出 RuntimeException
+         */
+        public void join() {
+            try {
+                while (collected < futures.size()) {
+                    FutureTask<?> future = completed.poll(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (future == null) {
+                        cancelAll();
+                        throw new RuntimeException("查询超时");
+                    }
+                    collected++;
+                    future.get();
+                }
+            } catch (CancellationException e) {
+                throw new RuntimeException("查询已取消");
+            } catch (InterruptedException e) {
+                cancelAll();
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("查询被中断");
+            } catch (ExecutionException e) {
+                cancelAll();
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new RuntimeException(cause);
+            }
+        }
+
+        @Override
+        public void close() {
+            cancelAll();
+        }
+
+        private void cancelAll() {
+            for (Future<?> future : futures) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * 已提交的任务
+     */
+    public static final class Task<T> {
+
+        private final FutureTask<T> future;
+
+        private Task(FutureTask<T> future) {
+            this.future = future;
+        }
+
+        /**
+         * 任务结果，只能在 Scope.join() 成功返回后调用
+         */
+        public T get() {
+            if (!future.isDone()) {
+                throw new IllegalStateException("任务尚未完成，请先调用 join()");
+            }
+            try {
+                return future.get();
+            } catch (CancellationException | InterruptedException e) {
+                throw new IllegalStateException("任务已取消", e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                throw cause instanceof RuntimeException ? (RuntimeException) cause : new RuntimeException(cause);
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.sg.nusiss.gamevaultmicobackendhzy.service.forum;
+
+import com.sg.nusiss.gamevaultmicobackendhzy.entity.forum.ContentMetric;
+import com.sg.nusiss.gamevaultmicobackendhzy.mapper.forum.ForumMetricMapper;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 统计数据批量读取服务
+ *
+ * 1. 多个内容的多个统计值一条查询读出（内容ID、统计类型ID 以数组绑定）
+ * 2. 结果逐行写入 long -> int 原始类型哈希表，不为每行创建 Map 条目和装箱对象
+ * 3. 没有统计行的内容读取为 0
+ */
+@Service
+public class ForumMetricService {
+
+    /** 单次最多查询的内容数 */
+    public static final int MAX_BATCH_SIZE = 5000;
+
+    @Autowired
+    private ForumMetricMapper metricMapper;
+
+    @Autowired
+    private ForumTypeRegistry typeRegistry;
+
+    /**
+     * 批量获取多个内容的多个统计值
+     * @param contentIds 内容ID（不超过 MAX_BATCH_SIZE 个）
+     * @param metricNames ForumMetricName 中的名称
+     * @return Map<统计名称, Map<内容ID, 统计值>>，每个请求的内容ID都有值，没有统计行的为 0
+     */
+    public Map<String, Long2IntOpenHashMap> getMetrics(Collection<Long> contentIds, List<String> metricNames) {
+        if (contentIds.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("单次最多查询 " + MAX_BATCH_SIZE + " 个内容");
+        }
+
+        Long[] ids = contentIds.toArray(new Long[0]);
+        Long[] metricIds = new Long[metricNames.size()];
+        Map<Long, Long2IntOpenHashMap> byMetricId = new HashMap<>();
+        Map<String, Long2IntOpenHashMap> result = new HashMap<>();
+        for (int i = 0; i < metricIds.length; i++) {
+            metricIds[i] = typeRegistry.metricId(metricNames.get(i));
+            Long2IntOpenHashMap values = new Long2IntOpenHashMap(ids.length);
+            byMetricId.put(metricIds[i], values);
+            result.put(metricNames.get(i), values);
+        }
+        if (ids.length == 0 || metricIds.length == 0) {
+            return result;
+        }
+
+        metricMapper.scanMetrics(ids, metricIds, context -> {
+            ContentMetric row = context.getResultObject();
+            Integer value = row.getMetricValue();
+            byMetricId.get(row.getMetricId()).put(row.getContentId().longValue(), value != null ? value : 0);
+        });
+
+        for (Long2IntOpenHashMap values : result.values()) {
+            for (Long id : ids) {
+                if (id != null) {
+                    values.putIfAbsent(id.longValue(), 0);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 批量获取多个内容的单个统计值
+     * @return Map<内容ID, 统计值>
+     */
+    public Long2IntOpenHashMap getMetric(Collection<Long> contentIds, String metricName) {
+        return getMetrics(contentIds, List.of(metricName)).get(metricName);
+    }
+}
@@ -0,0 +1,414 @@
+package com.sg.nusiss.gamevaultmicobackendhzy.service.forum;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.sg.nusiss.gamevaultmicobackendhzy.entity.forum.ForumContent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * 帖子两级缓存（本地 Caffeine + Redis）
+ * 缓存帖子详情和前几页帖子列表，不含当前用户的点赞状态
+ *
+ * 1. 读：本地 -> Redis -> 数据库，值以 JSON 保存，每次读取得到新对象，调用方可以随意修改
+ * 2. 写：帖子创建/修改/删除/回复后，本节点立即失效，删除 Redis 中的值，并通过频道通知其他节点
+ * 3. Redis 不可用或未订阅到失效频道时只用本地缓存，此时写入的本地值使用更短的过期时间，用来兜住丢失的失效通知
+ * 4. 其他本地缓存可以通过 publish / addListener 复用同一个频道广播自己的变更
+ */
+@Component
+public class ForumPostCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ForumPostCache.class);
+
+    private static final String POST_KEY_PREFIX = "forum:cache:post:";
+    private static final String FEED_KEY = "forum:cache:feed";
+    private static final String INVALIDATE_CHANNEL = "forum:cache:invalidate";
+
+    private static final String POST_MESSAGE_PREFIX = "post:";
+    private static final String FEED_MESSAGE = "feed";
+
+    /** Redis 调用失败后暂停访问的时间，避免每个请求都等待连接超时 */
+    private static final long REDIS_RETRY_INTERVAL_MS = 30_000;
+
+    private static final TypeReference<List<ForumContent>> POST_LIST_TYPE = new TypeReference<>() {};
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private RedisConnectionFactory redisConnectionFactory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.forum.post-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.forum.post-cache.local-maximum-size:2000}")
+    private long localMaximumSize;
+
+    @Value("${app.forum.post-cache.local-ttl-seconds:10}")
+    private long localTtlSeconds;
+
+    @Value("${app.forum.post-cache.local-fallback-ttl-seconds:2}")
+    private long localFallbackTtlSeconds;
+
+    @Value("${app.forum.post-cache.redis-ttl-seconds:60}")
+    private long redisTtlSeconds;
+
+    @Value("${app.forum.post-cache.feed-pages:3}")
+    private int feedPages;
+
+    /** 本地缓存：post:{id} / feed:{page}:{size} -> JSON */
+    private Cache<String, String> localCache;
+
+    /** 按字段读写 ForumContent，绕开 setBody 等带副作用的 setter */
+    private ObjectMapper jsonMapper;
+
+    private RedisMessageListenerContainer listenerContainer;
+
+    private volatile long redisRetryAt = 0;
+
+    private volatile long subscribeRetryAt = 0;
+
+    /** 其他缓存注册的消息处理器：消息前缀 -> 处理器 */
+    private final Map<String, Consumer<String>> listeners = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        // 过期时间在写入时按 Redis 状态决定：收不到其他节点的失效通知时只短暂保留
+        Duration localTtl = Duration.ofSeconds(localTtlSeconds);
+        Duration fallbackTtl = Duration.ofSeconds(Math.min(localFallbackTtlSeconds, localTtlSeconds));
+        localCache = Caffeine.newBuilder()
+                .maximumSize(localMaximumSize)
+                .expireAfter(Expiry.<String, String>writing((key, value) -> isRedisAvailable() ? localTtl : fallbackTtl))
+                .build();
+
+        jsonMapper = objectMapper.copy()
+                .setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE)
+                .setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY)
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+        if (!enabled) {
+            return;
+        }
+
+        // 订阅失效通知；启动时 Redis 连不上不影响启动，之后访问 Redis 成功时再订阅
+        listenerContainer = new RedisMessageListenerContainer();
+        listenerContainer.setConnectionFactory(redisConnectionFactory);
+        listenerContainer.addMessageListener(
+                (message, pattern) -> onInvalidate(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(INVALIDATE_CHANNEL));
+        listenerContainer.afterPropertiesSet();
+        subscribe();
+    }
+
+    private synchronized void subscribe() {
+        if (listenerContainer.isListening() || System.currentTimeMillis() < subscribeRetryAt) {
+            return;
+        }
+        try {
+            // 上次启动失败时容器仍处于运行状态，先停掉再重新订阅
+            if (listenerContainer.isRunning()) {
+                listenerContainer.stop();
+            }
+            listenerContainer.start();
+            logger.info("已订阅帖子缓存失效频道: {}", INVALIDATE_CHANNEL);
+        } catch (Exception e) {
+            subscribeRetryAt = System.currentTimeMillis() + REDIS_RETRY_INTERVAL_MS;
+            logger.warn("订阅帖子缓存失效频道失败，仅使用本地缓存: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (listenerContainer != null) {
+            try {
+                listenerContainer.destroy();
+            } catch (Exception e) {
+                logger.warn("关闭缓存失效订阅失败: {}", e.getMessage());
+            }
+        }
+    }
+
+    // ==================== 帖子详情 ====================
+
+    /**
+     * 读取缓存的帖子详情，未命中返回 null
+     */
+    public ForumContent getPost(Long postId) {
+        if (!enabled || postId == null) {
+            return null;
+        }
+
+        String json = localCache.getIfPresent(POST_MESSAGE_PREFIX + postId);
+        if (json == null) {
+            json = redis(() -> redisTemplate.opsForValue().get(POST_KEY_PREFIX + postId));
+            if (json == null) {
+                return null;
+            }
+            localCache.put(POST_MESSAGE_PREFIX + postId, json);
+        }
+        return readValue(json, ForumContent.class);
+    }
+
+    /**
+     * 写入帖子详情
+     */
+    public void putPost(ForumContent post) {
+        if (!enabled || post == null || post.getContentId() == null) {
+            return;
+        }
+
+        String json = writeValue(post);
+        if (json == null) {
+            return;
+        }
+        localCache.put(POST_MESSAGE_PREFIX + post.getContentId(), json);
+        redis(() -> {
+            redisTemplate.opsForValue().set(POST_KEY_PREFIX + post.getContentId(), json,
+                    Duration.ofSeconds(redisTtlSeconds));
+            return null;
+        });
+    }
+
+    /**
+     * 使帖子详情失效（在事务中调用时，提交后才生效）
+     */
+    public void evictPost(Long postId) {
+        if (postId == null) {
+            return;
+        }
+        evictPosts(List.of(postId));
+    }
+
+    /**
+     * 批量使帖子详情失效：一次删除 Redis 中的值，只发送一条失效通知（在事务中调用时，提交后才生效）
+     */
+    public void evictPosts(Collection<Long> postIds) {
+        if (!enabled || postIds == null || postIds.isEmpty()) {
+            return;
+        }
+
+        List<Long> ids = List.copyOf(postIds);
+        afterCommit(() -> {
+            ids.forEach(id -> localCache.invalidate(POST_MESSAGE_PREFIX + id));
+            redis(() -> {
+                redisTemplate.delete(ids.stream().map(id -> POST_KEY_PREFIX + id).toList());
+                redisTemplate.convertAndSend(INVALIDATE_CHANNEL, POST_MESSAGE_PREFIX
+                        + ids.stream().map(String::valueOf).collect(Collectors.joining(",")));
+                return null;
+            });
+        });
+    }
+
+    // ==================== 帖子列表 ====================
+
+    /**
+     * 读取缓存的帖子列表页，只缓存前 feed-pages 页，未命中返回 null
+     */
+    public List<ForumContent> getFeedPage(int page, int size) {
+        if (!isFeedPageCacheable(page)) {
+            return null;
+        }
+
+        String field = feedField(page, size);
+        String json = localCache.getIfPresent(FEED_MESSAGE + ":" + field);
+        if (json == null) {
+            json = redis(() -> (String) redisTemplate.opsForHash().get(FEED_KEY, field));
+            if (json == null) {
+                return null;
+            }
+            localCache.put(FEED_MESSAGE + ":" + field, json);
+        }
+        return readValue(json, POST_LIST_TYPE);
+    }
+
+    /**
+     * 写入帖子列表页
+     * 所有页放在同一个 Redis Hash 中，失效时一次删除
+     */
+    public void putFeedPage(int page, int size, List<ForumContent> posts) {
+        if (!isFeedPageCacheable(page) || posts == null) {
+            return;
+        }
+
+        String json = writeValue(posts);
+        if (json == null) {
+            return;
+        }
+        String field = feedField(page, size);
+        localCache.put(FEED_MESSAGE + ":" + field, json);
+        redis(() -> {
+            redisTemplate.opsForHash().put(FEED_KEY, field, json);
+            redisTemplate.expire(FEED_KEY, Duration.ofSeconds(redisTtlSeconds));
+            return null;
+        });
+    }
+
+    /**
+     * 使所有缓存的列表页失效（在事务中调用时，提交后才生效）
+     */
+    public void evictFeed() {
+        if (!enabled) {
+            return;
+        }
+
+        afterCommit(() -> {
+            evictLocalFeed();
+            redis(() -> {
+                redisTemplate.delete(FEED_KEY);
+                redisTemplate.convertAndSend(INVALIDATE_CHANNEL, FEED_MESSAGE);
+                return null;
+            });
+        });
+    }
+
+    // ==================== 频道复用 ====================
+
+    /**
+     * 在失效频道上广播消息（所有节点包括本节点都会收到），Redis 不可用或缓存关闭时丢弃
+     */
+    public void publish(String message) {
+        if (!enabled) {
+            return;
+        }
+        redis(() -> redisTemplate.convertAndSend(INVALIDATE_CHANNEL, message));
+    }
+
+    /**
+     * 注册以 prefix 开头的消息的处理器（前缀不能与 post: / feed 重叠）
+     */
+    public void addListener(String prefix, Consumer<String> listener) {
+        listeners.put(prefix, listener);
+    }
+
+    // ==================== 内部方法 ====================
+
+    /**
+     * 处理其他节点（也包括本节点）发来的失效通知
+     */
+    private void onInvalidate(String message) {
+        if (FEED_MESSAGE.equals(message)) {
+            evictLocalFeed();
+        } else if (message.startsWith(POST_MESSAGE_PREFIX)) {
+            // post:{id} 或 post:{id},{id},...
+            for (String id : message.substring(POST_MESSAGE_PREFIX.length()).split(",")) {
+                localCache.invalidate(POST_MESSAGE_PREFIX + id);
+            }
+        } else {
+            listeners.forEach((prefix, listener) -> {
+                if (message.startsWith(prefix)) {
+                    listener.accept(message);
+                }
+            });
+        }
+    }
+
+    /**
+     * Redis 可以访问且已订阅到失效频道，其他节点的变更能及时通知到本节点
+     */
+    private boolean isRedisAvailable() {
+        return System.currentTimeMillis() >= redisRetryAt
+                && listenerContainer != null && listenerContainer.isListening();
+    }
+
+    private void evictLocalFeed() {
+        localCache.asMap().keySet().removeIf(key -> key.startsWith(FEED_MESSAGE + ":"));
+    }
+
+    private boolean isFeedPageCacheable(int page) {
+        return enabled && page >= 0 && page < feedPages;
+    }
+
+    private static String feedField(int page, int size) {
+        return page + ":" + size;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * 执行 Redis 操作，失败时返回 null 并暂停访问 Redis 一段时间
+     */
+    private <T> T redis(Supplier<T> action) {
+        if (System.currentTimeMillis() < redisRetryAt) {
+            return null;
+        }
+        try {
+            T result = action.get();
+            if (listenerContainer != null && !listenerContainer.isListening()) {
+                subscribe();
+            }
+            return result;
+        } catch (Exception e) {
+            redisRetryAt = System.currentTimeMillis() + REDIS_RETRY_INTERVAL_MS;
+            logger.warn("Redis 访问失败，{} 秒内只使用本地缓存: {}", REDIS_RETRY_INTERVAL_MS / 1000, e.getMessage());
+            return null;
+        }
+    }
+
+    private String writeValue(Object value) {
+        try {
+            return jsonMapper.writeValueAsString(value);
+        } catch (Exception e) {
+            logger.warn("帖子缓存序列化失败: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private <T> T readValue(String json, Class<T> type) {
+        try {
+            return jsonMapper.readValue(json, type);
+        } catch (Exception e) {
+            logger.warn("帖子缓存反序列化失败: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private <T> T readValue(String json, TypeReference<T> type) {
+        try {
+            return jsonMapper.readValue(json, type);
+        } catch (Exception e) {
+            logger.warn("帖子缓存反序列化失败: {}", e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.sg.nusiss.gamevaultmicobackendhzy.service.forum;
+
+import com.sg.nusiss.gamevaultmicobackendhzy.entity.forum.ForumContent;
+
+import java.util.List;
+
+/**
+ * 帖子搜索后端
+ * 由 app.forum.search.engine 选择实现：
+ * database - 数据库全文检索索引（默认）
+ * memory   - 进程内倒排索引，适用于无法安装 Postgres 扩展的部署
+ */
+public interface ForumSearchEngine {
+
+    /**
+     * 搜索帖子，按相关度排序
+     * @param keyword 已去除首尾空白的关键词
+     * @return 帖子列表（带统计数据，不含当前用户点赞状态）
+     */
+    List<ForumContent> search(String keyword, int offset, int limit);
+
+    /**
+     * 统计搜索结果数量
+     */
+    int count(String keyword);
+
+    /**
+     * 帖子创建或修改后调用（post 需包含 contentId、title、bodyPlain、authorId、createdDate）
+     */
+    default void indexPost(ForumContent post) {
+    }
+
+    /**
+     * 帖子删除后调用
+     */
+    default void removePost(Long postId) {
+    }
+
+    /**
+     * 帖子的浏览数/点赞数/回复数在本节点变化后调用
+     * @param metric ForumMetricName 中的统计类型名称
+     */
+    default void onCountChanged(Long postId, String metric, int delta) {
+    }
+
+    /**
+     * 从数据库重建索引（定时任务调用，用于同步其他节点的修改）
+     */
+    default void rebuild() {
+    }
+}
@@ -1,12 +1,25 @@
 package com.sg.nusiss.gamevaultmicobackendhzy.service.forum;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import com.sg.nusiss.gamevaultmicobackendhzy.entity.forum.ForumUser;
 import com.sg.nusiss.gamevaultmicobackendhzy.mapper.forum.ForumUserMapper;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * 用户业务服务类
@@ -19,6 +32,57 @@ public class ForumUserService {
     @Autowired
     private ForumUserMapper userMapper;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.forum.user-cache.maximum-size:10000}")
+    private long cacheMaximumSize;
+
+    @Value("${app.forum.user-cache.expire-after-write-seconds:600}")
+    private long cacheExpireSeconds;
+
+    /**
+     * 用户资料本地缓存（userId -> 用户）
+     * 资料只在 updateUserProfile 中修改，按容量和写入时间淘汰，修改时主动失效
+     * 不存在的用户不缓存
+     */
+    private Cache<Long, ForumUser> userCache;
+
+    @PostConstruct
+    public void initCache() {
+        userCache = Caffeine.newBuilder()
+                .maximumSize(cacheMaximumSize)
+                .expireAfterWrite(Duration.ofSeconds(cacheExpireSeconds))
+                .recordStats()
+                .build();
+        // 命中 / 未命中 / 淘汰等指标：/actuator/metrics/cache.gets?tag=cache:forum.users
+        CaffeineCacheMetrics.monitor(meterRegistry, userCache, "forum.users");
+    }
+
+    /**
+     * 从缓存读取用户，未命中时查库并回填
+     */
+    private ForumUser findUserCached(Long userId) {
+        ForumUser cached = userCache.getIfPresent(userId);
+        if (cached != null) {
+            return cached;
+        }
+        ForumUser user = userMapper.findById(userId);
+        if (user != null) {
+            userCache.put(userId, user);
+        }
+        return user;
+    }
+
+    /**
+     * 使某个用户的缓存失效
+     */
+    public void evictUser(Long userId) {
+        if (userId != null) {
+            userCache.invalidate(userId);
+        }
+    }
+
     /**
      * 根据ID获取用户信息
      */
@@ -27,7 +91,7 @@ public class ForumUserService {
             throw new IllegalArgumentException("用户ID不能为空");
         }
 
-        ForumUser user = userMapper.findById(userId);
+        ForumUser user = findUserCached(userId);
         if (user == null) {
             throw new RuntimeException("用户不存在");
         }
@@ -83,6 +147,7 @@ public class ForumUserService {
 
         int result = userMapper.insert(user);
         if (result > 0) {
+            evictUser(userId);
             return user;
         } else {
             throw new RuntimeException("创建用户失败");
@@ -123,6 +188,7 @@ public class ForumUserService {
         if (hasUpdates) {
             user.setUpdatedDate(LocalDateTime.now());
             int result = userMapper.update(user);
+            evictUser(userId);
             if (result <= 0) {
                 throw new RuntimeException("更新用户信息失败");
             }
@@ -140,7 +206,7 @@ public class ForumUserService {
         }
 
         try {
-            ForumUser user = userMapper.findById(userId);
+            ForumUser user = findUserCached(userId);
             return user != null;
         } catch (Exception e) {
             return false;
@@ -184,7 +250,40 @@ public class ForumUserService {
             throw new IllegalArgumentException("用户ID列表不能为空");
         }
 
-        return userMapper.findByIds(userIds);
+        return new ArrayList<>(getUserMapByIds(userIds).values());
+    }
+
+    /**
+     * 批量获取用户信息（按ID索引）
+     * @return Map<用户ID, 用户>，不存在的用户不包含在结果中
+     */
+    public Map<Long, ForumUser> getUserMapByIds(Collection<Long> userIds) {
+        Map<Long, ForumUser> result = new LinkedHashMap<>();
+        if (userIds == null || userIds.isEmpty()) {
+            return result;
+        }
+
+        // 先取缓存，只对未命中的ID查一次库
+        Set<Long> missing = new LinkedHashSet<>();
+        for (Long userId : userIds) {
+            if (userId == null || result.containsKey(userId)) {
+                continue;
+            }
+            ForumUser cached = userCache.getIfPresent(userId);
+            if (cached != null) {
+                result.put(userId, cached);
+            } else {
+                missing.add(userId);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            for (ForumUser user : userMapper.findByIds(new ArrayList<>(missing))) {
+                userCache.put(user.getUserId(), user);
+                result.put(user.getUserId(), user);
+            }
+        }
+        return result;
     }
 
     /**
@@ -196,7 +295,7 @@ public class ForumUserService {
         }
 
         try {
-            ForumUser user = userMapper.findById(userId);
+            ForumUser user = findUserCached(userId);
             return user != null && user.isActive();
         } catch (Exception e) {
             return false;
@@ -0,0 +1,493 @@
+package com.sg.nusiss.gamevaultmicobackendhzy.service.forum;
+
+import com.sg.nusiss.gamevaultmicobackendhzy.constant.forum.ForumMetricName;
+import com.sg.nusiss.gamevaultmicobackendhzy.entity.forum.ForumContent;
+import com.sg.nusiss.gamevaultmicobackendhzy.mapper.forum.ForumContentMapper;
+import com.sg.nusiss.gamevaultmicobackendhzy.util.forum.SearchTokenizer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * 进程内倒排索引搜索后端（app.forum.search.engine=memory）
+ *
+ * 1. 启动完成后从 contents 全量构建索引，之后由 createPost/updatePost/deletePost 增量更新，
+ *    并定时重建以同步其他节点的修改
+ * 2. 标题和正文分词后建立 词 -> (帖子ID -> 词频) 的倒排表，标题中的词按 2 倍词频计
+ * 3. 查询时所有词都需命中（AND），按 BM25 打分并按发布时间加权，堆选出前 offset+limit 条
+ * 4. 索引中同时保存列表页需要的摘要（标题、正文前 200 字、作者、发布时间）和统计数据，查询不访问数据库；
+ *    统计数据在重建时从 post_summary 读取，之后由本节点的浏览/点赞/回复事件累加，
+ *    其他节点的变化和未写回的浏览量在下次重建时同步
+ * 5. 索引尚未构建成功时退回数据库搜索
+ */
+@Service
+@ConditionalOnProperty(prefix = "app.forum.search", name = "engine", havingValue = "memory")
+public class InMemorySearchEngine implements ForumSearchEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(InMemorySearchEngine.class);
+
+    private static final int TITLE_WEIGHT = 2;
+
+    // BM25 参数
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    /** 新帖的最大加权比例：刚发布的帖子得分 x1.5，随半衰期衰减到 x1 */
+    private static final double RECENCY_WEIGHT = 0.5;
+
+    private static final double MILLIS_PER_DAY = 86_400_000d;
+
+    /** 摘要长度，与 post_summary.excerpt 相同 */
+    private static final int EXCERPT_LENGTH = 200;
+
+    // Doc.counts 中的下标
+    private static final int VIEW = 0;
+    private static final int LIKE = 1;
+    private static final int REPLY = 2;
+
+    @Autowired
+    private ForumContentMapper contentMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.forum.search.recency-half-life-days:30}")
+    private double recencyHalfLifeDays;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /** 当前索引，构建成功前为 null */
+    private Index index;
+
+    /** 重建期间发生的增量修改，重建完成后补到新索引上 */
+    private final List<Consumer<Index>> changesDuringRebuild = new ArrayList<>();
+    private boolean rebuilding = false;
+
+    private final Object rebuildMonitor = new Object();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @Override
+    public void rebuild() {
+        synchronized (rebuildMonitor) {
+            long start = System.currentTimeMillis();
+            withWriteLock(() -> {
+                rebuilding = true;
+                changesDuringRebuild.clear();
+            });
+
+            Index fresh = new Index();
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        contentMapper.scanActivePostsForIndex(context -> {
+                            fresh.add(context.getResultObject());
+                        }));
+            } catch (Exception e) {
+                withWriteLock(() -> {
+                    rebuilding = false;
+                    changesDuringRebuild.clear();
+                });
+                logger.error("构建搜索索引失败，继续使用{}", index == null ? "数据库搜索" : "旧索引", e);
+                return;
+            }
+
+            withWriteLock(() -> {
+                changesDuringRebuild.forEach(change -> change.accept(fresh));
+                changesDuringRebuild.clear();
+                rebuilding = false;
+                index = fresh;
+            });
+            logger.info("搜索索引构建完成 - 帖子数: {}, 词数: {}, 耗时: {}ms",
+                    fresh.docs.size(), fresh.postings.size(), System.currentTimeMillis() - start);
+        }
+    }
+
+    @Override
+    public void indexPost(ForumContent post) {
+        if (post == null || post.getContentId() == null) {
+            return;
+        }
+        applyChange(idx -> idx.add(post));
+    }
+
+    @Override
+    public void removePost(Long postId) {
+        if (postId == null) {
+            return;
+        }
+        applyChange(idx -> idx.remove(postId));
+    }
+
+    @Override
+    public void onCountChanged(Long postId, String metric, int delta) {
+        int slot = countSlot(metric);
+        if (postId == null || slot < 0 || delta == 0) {
+            return;
+        }
+        // 计数是原子的，平时只需读锁；重建期间走写锁，同时记到待补的修改里
+        lock.readLock().lock();
+        try {
+            if (index != null && !rebuilding) {
+                index.addCount(postId, slot, delta);
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        applyChange(idx -> idx.addCount(postId, slot, delta));
+    }
+
+    @Override
+    public List<ForumContent> search(String keyword, int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            if (index == null) {
+                return contentMapper.searchPosts(keyword, offset, limit);
+            }
+            List<Long> ids = index.topK(keyword, offset, limit, recencyHalfLifeDays);
+            List<ForumContent> posts = new ArrayList<>(ids.size());
+            for (Long id : ids) {
+                posts.add(index.docs.get(id).toSummary(id));
+            }
+            return posts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int count(String keyword) {
+        lock.readLock().lock();
+        try {
+            if (index == null) {
+                return contentMapper.countSearchPosts(keyword);
+            }
+            return index.count(keyword);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void applyChange(Consumer<Index> change) {
+        withWriteLock(() -> {
+            if (index != null) {
+                change.accept(index);
+            }
+            if (rebuilding) {
+                changesDuringRebuild.add(change);
+            }
+        });
+    }
+
+    private static int countSlot(String metric) {
+        if (metric == null) {
+            return -1;
+        }
+        switch (metric) {
+            case ForumMetricName.VIEW_COUNT:
+                return VIEW;
+            case ForumMetricName.LIKE_COUNT:
+                return LIKE;
+            case ForumMetricName.REPLY_COUNT:
+                return REPLY;
+            default:
+                return -1;
+        }
+    }
+
+    /**
+     * 正文前 200 个字符（按码点截取，与 LEFT(body_plain, 200) 一致）
+     */
+    private static String excerpt(String bodyPlain) {
+        if (bodyPlain == null || bodyPlain.length() <= EXCERPT_LENGTH
+                || bodyPlain.codePointCount(0, bodyPlain.length()) <= EXCERPT_LENGTH) {
+            return bodyPlain;
+        }
+        return bodyPlain.substring(0, bodyPlain.offsetByCodePoints(0, EXCERPT_LENGTH));
+    }
+
+    private static int valueOf(Integer count) {
+        return count != null ? count : 0;
+    }
+
+    private void withWriteLock(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 倒排索引本体（非线程安全，由外层读写锁保护）
+     */
+    private static final class Index {
+
+        /** 词 -> (帖子ID -> 加权词频) */
+        final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+        /** 汉字 -> 包含该字的二元组（单字查询只合并这些词的倒排表） */
+        final Map<String, Set<String>> bigramsByChar = new HashMap<>();
+        final Map<Long, Doc> docs = new HashMap<>();
+        long totalLength = 0;
+
+        void add(ForumContent post) {
+            Long id = post.getContentId();
+            // 修改帖子时沿用已累加的统计数据
+            Doc old = docs.get(id);
+            AtomicIntegerArray counts = old != null ? old.counts : new AtomicIntegerArray(new int[]{
+                    valueOf(post.getViewCount()), valueOf(post.getLikeCount()), valueOf(post.getReplyCount())});
+            remove(id);
+
+            Map<String, Integer> termFreq = new HashMap<>();
+            for (String term : SearchTokenizer.tokenize(post.getTitle())) {
+                termFreq.merge(term, TITLE_WEIGHT, Integer::sum);
+            }
+            for (String term : SearchTokenizer.tokenize(post.getBodyPlain())) {
+                termFreq.merge(term, 1, Integer::sum);
+            }
+
+            int length = 0;
+            for (Map.Entry<String, Integer> entry : termFreq.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), term -> {
+                    for (String ch : cjkChars(term)) {
+                        bigramsByChar.computeIfAbsent(ch, k -> new HashSet<>()).add(term);
+                    }
+                    return new HashMap<>();
+                }).put(id, entry.getValue());
+                length += entry.getValue();
+            }
+
+            LocalDateTime createdDate = post.getCreatedDate() != null ? post.getCreatedDate() : LocalDateTime.now();
+            long createdMillis = createdDate.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            docs.put(id, new Doc(termFreq.keySet().toArray(new String[0]), length, createdMillis,
+                    post.getTitle(), excerpt(post.getBodyPlain()), post.getAuthorId(), createdDate, counts));
+            totalLength += length;
+        }
+
+        void addCount(Long id, int slot, int delta) {
+            Doc doc = docs.get(id);
+            if (doc != null) {
+                doc.counts.addAndGet(slot, delta);
+            }
+        }
+
+        void remove(Long id) {
+            Doc doc = docs.remove(id);
+            if (doc == null) {
+                return;
+            }
+            for (String term : doc.terms) {
+                Map<Long, Integer> posting = postings.get(term);
+                if (posting != null) {
+                    posting.remove(id);
+                    if (posting.isEmpty()) {
+                        postings.remove(term);
+                        for (String ch : cjkChars(term)) {
+                            Set<String> bigrams = bigramsByChar.get(ch);
+                            if (bigrams != null && bigrams.remove(term) && bigrams.isEmpty()) {
+                                bigramsByChar.remove(ch);
+                            }
+                        }
+                    }
+                }
+            }
+            totalLength -= doc.length;
+        }
+
+        int count(String keyword) {
+            List<Map<Long, Integer>> lists = matchPostings(keyword);
+            if (lists.isEmpty()) {
+                return 0;
+            }
+            int count = 0;
+            for (Long id : lists.get(0).keySet()) {
+                if (containsAll(lists, id)) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        List<Long> topK(String keyword, int offset, int limit, double halfLifeDays) {
+            List<Map<Long, Integer>> lists = matchPostings(keyword);
+            int k = (int) Math.min((long) offset + limit, docs.size());
+            if (lists.isEmpty() || k <= 0 || offset >= k) {
+                return Collections.emptyList();
+            }
+
+            int n = docs.size();
+            double avgLength = n > 0 ? (double) totalLength / n : 1;
+            double[] idf = new double[lists.size()];
+            for (int i = 0; i < lists.size(); i++) {
+                int df = lists.get(i).size();
+                idf[i] = Math.log(1 + (n - df + 0.5) / (df + 0.5));
+            }
+
+            long now = System.currentTimeMillis();
+            Comparator<Scored> order = Comparator.comparingDouble((Scored s) -> s.score)
+                    .thenComparingLong(s -> s.id);
+            PriorityQueue<Scored> heap = new PriorityQueue<>(k, order);
+
+            for (Long id : lists.get(0).keySet()) {
+                if (!containsAll(lists, id)) {
+                    continue;
+                }
+                Doc doc = docs.get(id);
+                double norm = K1 * (1 - B + B * doc.length / avgLength);
+                double score = 0;
+                for (int i = 0; i < lists.size(); i++) {
+                    int tf = lists.get(i).get(id);
+                    score += idf[i] * tf * (K1 + 1) / (tf + norm);
+                }
+                double ageDays = Math.max(0, now - doc.createdMillis) / MILLIS_PER_DAY;
+                score *= 1 + RECENCY_WEIGHT * Math.pow(0.5, ageDays / halfLifeDays);
+
+                Scored scored = new Scored(id, score);
+                if (heap.size() < k) {
+                    heap.add(scored);
+                } else if (order.compare(scored, heap.peek()) > 0) {
+                    heap.poll();
+                    heap.add(scored);
+                }
+            }
+
+            List<Scored> ranked = new ArrayList<>(heap);
+            ranked.sort(order.reversed());
+            List<Long> ids = new ArrayList<>();
+            for (int i = offset; i < ranked.size(); i++) {
+                ids.add(ranked.get(i).id);
+            }
+            return ids;
+        }
+
+        /**
+         * 取出每个查询词的倒排表，按长度升序排列；任一词无命中时返回空列表
+         * 单个汉字只在单独成段时入索引，查询时通过 bigramsByChar 合并包含该字的二元组，不扫描整个词表
+         */
+        private List<Map<Long, Integer>> matchPostings(String keyword) {
+            Set<String> terms = new LinkedHashSet<>(SearchTokenizer.tokenize(keyword));
+            List<Map<Long, Integer>> lists = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                Map<Long, Integer> posting = postings.get(term);
+                Set<String> bigrams = SearchTokenizer.isSingleCjk(term) ? bigramsByChar.get(term) : null;
+                if (bigrams != null) {
+                    Map<Long, Integer> merged = posting != null ? new HashMap<>(posting) : new HashMap<>();
+                    for (String bigram : bigrams) {
+                        postings.get(bigram).forEach((id, tf) -> merged.merge(id, tf, Integer::sum));
+                    }
+                    posting = merged;
+                }
+                if (posting == null || posting.isEmpty()) {
+                    return Collections.emptyList();
+                }
+                lists.add(posting);
+            }
+            lists.sort(Comparator.comparingInt(Map::size));
+            return lists;
+        }
+
+        /**
+         * 多字词中出现的中日韩字符（去重），单字词和其他词返回空集
+         */
+        private static Set<String> cjkChars(String term) {
+            if (term.codePointCount(0, term.length()) < 2) {
+                return Collections.emptySet();
+            }
+            Set<String> chars = new HashSet<>(2);
+            term.codePoints()
+                    .filter(SearchTokenizer::isCjk)
+                    .forEach(cp -> chars.add(new String(Character.toChars(cp))));
+            return chars;
+        }
+
+        private static boolean containsAll(List<Map<Long, Integer>> lists, Long id) {
+            for (int i = 1; i < lists.size(); i++) {
+                if (!lists.get(i).containsKey(id)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static final class Doc {
+        final String[] terms;
+        final int length;
+        final long createdMillis;
+
+        // 列表页摘要
+        final String title;
+        final String excerpt;
+        final Long authorId;
+        final LocalDateTime createdDate;
+
+        /** 浏览数、点赞数、回复数（读锁下也会累加） */
+        final AtomicIntegerArray counts;
+
+        Doc(String[] terms, int length, long createdMillis,
+            String title, String excerpt, Long authorId, LocalDateTime createdDate, AtomicIntegerArray counts) {
+            this.terms = terms;
+            this.length = length;
+            this.createdMillis = createdMillis;
+            this.title = title;
+            this.excerpt = excerpt;
+            this.authorId = authorId;
+            this.createdDate = createdDate;
+            this.counts = counts;
+        }
+
+        /**
+         * 与 post_summary 查询结果相同的帖子摘要（excerpt 作为 bodyPlain）
+         */
+        ForumContent toSummary(Long id) {
+            ForumContent post = new ForumContent();
+            post.setContentId(id);
+            post.setContentType("post");
+            post.setTitle(title);
+            post.setBodyPlain(excerpt);
+            post.setAuthorId(authorId);
+            post.setStatus("active");
+            post.setCreatedDate(createdDate);
+            post.setViewCount(Math.max(0, counts.get(VIEW)));
+            post.setLikeCount(Math.max(0, counts.get(LIKE)));
+            post.setReplyCount(Math.max(0, counts.get(REPLY)));
+            return post;
+        }
+    }
+
+    private static final class Scored {
+        final long id;
+        final double score;
+
+        Scored(long id, double score) {
+            this.id = id;
+            this.score = score;
+        }
+    }
+}
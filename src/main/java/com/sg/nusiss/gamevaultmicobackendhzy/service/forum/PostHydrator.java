@@ -0,0 +1,115 @@
+package com.sg.nusiss.gamevaultmicobackendhzy.service.forum;
+
+import com.sg.nusiss.gamevaultmicobackendhzy.dto.forum.PostResponseDTO;
+import com.sg.nusiss.gamevaultmicobackendhzy.dto.forum.ReplyResponseDTO;
+import com.sg.nusiss.gamevaultmicobackendhzy.entity.forum.ForumContent;
+import com.sg.nusiss.gamevaultmicobackendhzy.entity.forum.ForumUser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 帖子/回复响应组装器
+ * 以整页为单位批量加载作者信息（去重后一次查询），再组装响应 DTO
+ */
+@Component
+public class PostHydrator {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostHydrator.class);
+
+    @Autowired
+    private ForumUserService userService;
+
+    @Autowired
+    private ForumPostService postService;
+
+    /**
+     * 组装帖子响应列表（一次查询所有作者）
+     */
+    public List<PostResponseDTO> toPostResponses(List<ForumContent> posts) {
+        if (posts == null || posts.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return toPostResponses(posts, loadAuthors(posts));
+    }
+
+    /**
+     * 批量加载帖子作者（一次查询）
+     * @return Map<作者ID, 用户>
+     */
+    public Map<Long, ForumUser> loadAuthors(List<ForumContent> posts) {
+        Set<Long> authorIds = new HashSet<>();
+        for (ForumContent post : posts) {
+            authorIds.add(post.getAuthorId());
+        }
+        return loadUsers(authorIds);
+    }
+
+    /**
+     * 用已加载的作者组装帖子响应列表
+     */
+    public List<PostResponseDTO> toPostResponses(List<ForumContent> posts, Map<Long, ForumUser> authors) {
+        List<PostResponseDTO> postDTOs = new ArrayList<>(posts.size());
+        for (ForumContent post : posts) {
+            postDTOs.add(PostResponseDTO.fromContentAndUser(post, authors.get(post.getAuthorId())));
+        }
+        return postDTOs;
+    }
+
+    /**
+     * 组装回复响应列表
+     * 一次查被回复内容的作者ID，一次查所有相关用户
+     */
+    public List<ReplyResponseDTO> toReplyResponses(List<ForumContent> replies) {
+        if (replies == null || replies.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Set<Long> replyToIds = new HashSet<>();
+        for (ForumContent reply : replies) {
+            if (reply.getReplyTo() != null) {
+                replyToIds.add(reply.getReplyTo());
+            }
+        }
+        Map<Long, Long> replyToAuthorIds = postService.getAuthorIdsByContentIds(replyToIds);
+
+        Set<Long> userIds = new HashSet<>(replyToAuthorIds.values());
+        for (ForumContent reply : replies) {
+            userIds.add(reply.getAuthorId());
+        }
+        Map<Long, ForumUser> users = loadUsers(userIds);
+
+        List<ReplyResponseDTO> replyDTOs = new ArrayList<>(replies.size());
+        for (ForumContent reply : replies) {
+            ForumUser author = users.get(reply.getAuthorId());
+            ForumUser replyToUser = null;
+            if (reply.getReplyTo() != null) {
+                Long replyToAuthorId = replyToAuthorIds.get(reply.getReplyTo());
+                replyToUser = replyToAuthorId != null ? users.get(replyToAuthorId) : null;
+            }
+            replyDTOs.add(ReplyResponseDTO.fromContentAndUsers(reply, author, replyToUser));
+        }
+        return replyDTOs;
+    }
+
+    /**
+     * 批量加载用户，失败时返回空结果（响应中不带作者信息，而不是整页失败）
+     */
+    private Map<Long, ForumUser> loadUsers(Set<Long> userIds) {
+        userIds.remove(null);
+        try {
+            return userService.getUserMapByIds(userIds);
+        } catch (Exception e) {
+            logger.warn("批量获取用户信息失败 - 用户数: {}, 异常信息: {}", userIds.size(), e.getMessage());
+            return Collections.emptyMap();
+        }
+    }
+}
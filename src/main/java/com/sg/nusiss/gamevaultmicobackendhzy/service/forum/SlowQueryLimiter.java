@@ -0,0 +1,62 @@
+package com.sg.nusiss.gamevaultmicobackendhzy.service.forum;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 慢查询并发限制（搜索等）
+ *
+ * 1. 同时执行的慢查询不超过 max-concurrent 个，连接池中其余连接留给普通接口
+ * 2. 请求线程（包括虚拟线程）在信号量上等待，最多等 acquire-timeout-ms，超时由调用方返回 503
+ * 3. max-concurrent 应小于连接池大小（spring.datasource.hikari.maximum-pool-size）
+ */
+@Component
+public class SlowQueryLimiter {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.forum.slow-query.max-concurrent:4}")
+    private int maxConcurrent;
+
+    @Value("${app.forum.slow-query.acquire-timeout-ms:2000}")
+    private long acquireTimeoutMs;
+
+    private Semaphore permits;
+
+    private Counter rejected;
+
+    @PostConstruct
+    public void init() {
+        permits = new Semaphore(maxConcurrent, true);
+        meterRegistry.gauge("forum.slow-query.in-flight", permits, p -> maxConcurrent - p.availablePermits());
+        rejected = meterRegistry.counter("forum.slow-query.rejected");
+    }
+
+    /**
+     * 获取执行许可，成功后必须调用 release()
+     * @return 等待超时或被中断时返回 false
+     */
+    public boolean tryAcquire() {
+        try {
+            if (permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        rejected.increment();
+        return false;
+    }
+
+    public void release() {
+        permits.release();
+    }
+}
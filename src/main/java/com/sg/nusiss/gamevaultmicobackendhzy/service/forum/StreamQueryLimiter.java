@@ -0,0 +1,63 @@
+package com.sg.nusiss.gamevaultmicobackendhzy.service.forum;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 流式接口（/stream）并发限制
+ *
+ * 1. 每个流在整个写出期间占用一个数据库连接（最长 spring.mvc.async.request-timeout），
+ *    单独限流，不占用搜索等慢查询的许可
+ * 2. 默认不等待，拿不到许可立即由调用方返回 503
+ * 3. max-concurrent 与 app.forum.slow-query.max-concurrent 之和应小于连接池大小
+ */
+@Component
+public class StreamQueryLimiter {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.forum.stream.max-concurrent:2}")
+    private int maxConcurrent;
+
+    @Value("${app.forum.stream.acquire-timeout-ms:0}")
+    private long acquireTimeoutMs;
+
+    private Semaphore permits;
+
+    private Counter rejected;
+
+    @PostConstruct
+    public void init() {
+        permits = new Semaphore(maxConcurrent, true);
+        meterRegistry.gauge("forum.stream.in-flight", permits, p -> maxConcurrent - p.availablePermits());
+        rejected = meterRegistry.counter("forum.stream.rejected");
+    }
+
+    /**
+     * 获取执行许可，成功后必须调用 release()
+     * @return 等待超时或被中断时返回 false
+     */
+    public boolean tryAcquire() {
+        try {
+            if (permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        rejected.increment();
+        return false;
+    }
+
+    public void release() {
+        permits.release();
+    }
+}
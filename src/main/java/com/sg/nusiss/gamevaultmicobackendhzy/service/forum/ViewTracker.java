@@ -1,24 +1,36 @@
 package com.sg.nusiss.gamevaultmicobackendhzy.service.forum;
 
+import com.sg.nusiss.gamevaultmicobackendhzy.util.forum.LongHashSet;
 import org.springframework.stereotype.Service;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 /**
  * 浏览记录追踪器
  * 用于防止短时间内重复计数浏览量
+ *
+ * 以 (用户/会话, 帖子) 打包成的 long 作为键，按5分钟时间桶存放（当前桶 + 上一个桶），
+ * 过期只需丢弃旧桶，不用逐条扫描；记录一次浏览不产生任何对象分配
  */
 @Service
 public class ViewTracker {
-    
-    // 存储格式: "userId_postId" -> lastViewTime
-    // 如果userId为null，使用sessionId
-    private final Map<String, Long> viewRecords = new ConcurrentHashMap<>();
-    
-    // 时间窗口：5分钟内不重复计数
+
+    // 时间窗口：5分钟内不重复计数（已计数的记录在当前桶或上一个桶中，实际保留5~10分钟）
     private static final long VIEW_WINDOW_MS = TimeUnit.MINUTES.toMillis(5);
-    
+
+    // 分段加锁，降低并发访问时的锁竞争
+    private static final int STRIPE_COUNT = 64;
+
+    private static final int INITIAL_BUCKET_SIZE = 256;
+
+    private final Stripe[] stripes = new Stripe[STRIPE_COUNT];
+
+    public ViewTracker() {
+        long window = currentWindow();
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            stripes[i] = new Stripe(window);
+        }
+    }
+
     /**
      * 检查是否应该增加浏览量
      * @param userId 用户ID（可能为null，未登录用户）
@@ -27,43 +39,101 @@ public class ViewTracker {
      * @return true如果应该增加浏览量，false如果在时间窗口内已浏览过
      */
     public boolean shouldIncrementView(Long userId, String sessionId, Long postId) {
-        String key = buildKey(userId, sessionId, postId);
-        long currentTime = System.currentTimeMillis();
-        
-        Long lastViewTime = viewRecords.get(key);
-        
-        // 如果从未浏览过，或者超过时间窗口
-        if (lastViewTime == null || (currentTime - lastViewTime) > VIEW_WINDOW_MS) {
-            viewRecords.put(key, currentTime);
-            return true;
+        long key = buildKey(userId, sessionId, postId);
+        Stripe stripe = stripes[(int) (key >>> 58) & (STRIPE_COUNT - 1)];
+        return stripe.markViewed(key, currentWindow());
+    }
+
+    /**
+     * 构建记录键：用户（或会话哈希）与帖子ID打包并打散成一个 long
+     */
+    private long buildKey(Long userId, String sessionId, Long postId) {
+        long viewer;
+        if (userId != null) {
+            viewer = userId;
+        } else {
+            // 会话用最高位区分，避免与用户ID冲突
+            viewer = (sessionId != null ? sessionId.hashCode() & 0xFFFFFFFFL : 0L) | Long.MIN_VALUE;
         }
-        
-        // 在时间窗口内，不增加浏览量
-        return false;
+        long key = mix(viewer * 0x9E3779B97F4A7C15L + (postId != null ? postId : 0L));
+        return key != 0 ? key : 1;
     }
-    
+
     /**
-     * 构建缓存key
+     * 64位哈希混淆（MurmurHash3 fmix64）
      */
-    private String buildKey(Long userId, String sessionId, Long postId) {
-        String userIdentifier = userId != null ? "user_" + userId : "session_" + sessionId;
-        return userIdentifier + "_post_" + postId;
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static long currentWindow() {
+        return System.currentTimeMillis() / VIEW_WINDOW_MS;
     }
-    
+
     /**
      * 清理过期记录（可选，由定时任务调用）
+     * 只做时间桶轮换，空闲分段的旧桶也能及时释放
      */
     public void cleanExpiredRecords() {
-        long currentTime = System.currentTimeMillis();
-        viewRecords.entrySet().removeIf(entry -> 
-            (currentTime - entry.getValue()) > VIEW_WINDOW_MS
-        );
+        long window = currentWindow();
+        for (Stripe stripe : stripes) {
+            stripe.rotate(window);
+        }
     }
-    
+
     /**
      * 获取当前记录数（用于监控）
      */
     public int getRecordCount() {
-        return viewRecords.size();
+        int count = 0;
+        for (Stripe stripe : stripes) {
+            count += stripe.size();
+        }
+        return count;
+    }
+
+    /**
+     * 一个分段：当前时间桶 + 上一个时间桶
+     */
+    private static final class Stripe {
+        private long window;
+        private LongHashSet current = new LongHashSet(INITIAL_BUCKET_SIZE);
+        private LongHashSet previous = new LongHashSet(INITIAL_BUCKET_SIZE);
+
+        Stripe(long window) {
+            this.window = window;
+        }
+
+        synchronized boolean markViewed(long key, long now) {
+            rotate(now);
+            if (current.contains(key) || previous.contains(key)) {
+                return false;
+            }
+            current.add(key);
+            return true;
+        }
+
+        synchronized void rotate(long now) {
+            if (now <= window) {
+                return;
+            }
+            if (now == window + 1) {
+                previous = current;
+            } else {
+                // 超过两个窗口没有访问，旧记录全部过期
+                previous = new LongHashSet(INITIAL_BUCKET_SIZE);
+            }
+            current = new LongHashSet(Math.max(INITIAL_BUCKET_SIZE, previous.size()));
+            window = now;
+        }
+
+        synchronized int size() {
+            return current.size() + previous.size();
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,68 @@
+package com.sg.nusiss.gamevaultmicobackendhzy.util.forum;
+
+import com.sg.nusiss.gamevaultmicobackendhzy.entity.forum.ForumContent;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * 帖子流游标（keyset 分页）
+ * 编码 (created_date, content_id)，对前端是不透明的字符串
+ */
+public final class FeedCursor {
+
+    private static final char SEPARATOR = '|';
+
+    private final LocalDateTime createdDate;
+    private final Long contentId;
+
+    public FeedCursor(LocalDateTime createdDate, Long contentId) {
+        this.createdDate = createdDate;
+        this.contentId = contentId;
+    }
+
+    public LocalDateTime getCreatedDate() {
+        return createdDate;
+    }
+
+    public Long getContentId() {
+        return contentId;
+    }
+
+    /**
+     * 以某条帖子为位置生成游标，下一页从它之后开始
+     */
+    public static String encode(ForumContent post) {
+        if (post == null || post.getCreatedDate() == null || post.getContentId() == null) {
+            return null;
+        }
+        String raw = post.getCreatedDate().toString() + SEPARATOR + post.getContentId();
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析游标，空字符串表示第一页（返回 null）
+     * @throws IllegalArgumentException 游标格式不正确
+     */
+    public static FeedCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            int idx = raw.lastIndexOf(SEPARATOR);
+            if (idx <= 0) {
+                throw new IllegalArgumentException("无效的游标");
+            }
+            LocalDateTime createdDate = LocalDateTime.parse(raw.substring(0, idx));
+            Long contentId = Long.valueOf(raw.substring(idx + 1));
+            return new FeedCursor(createdDate, contentId);
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            // NumberFormatException 也是 IllegalArgumentException
+            throw new IllegalArgumentException("无效的游标");
+        }
+    }
+}
@@ -1,31 +1,79 @@
 package com.sg.nusiss.gamevaultmicobackendhzy.util.forum;
 
-import io.jsonwebtoken.*;
-import io.jsonwebtoken.security.Keys;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.oauth2.jwt.Jwt;
-import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.stereotype.Component;
 
-import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
-import java.util.Date;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class ForumJwtUtil {
     private static final Logger logger = LoggerFactory.getLogger(ForumJwtUtil.class);
 
     @Autowired
-    private JwtDecoder jwtDecoder; // 使用gamevaultbackend的RS256 JwtDecoder
+    private ForumJwtVerifier jwtVerifier;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
 
     @Value("${auth.mock.enabled:false}")
     private boolean mockEnabled;
 
+    @Value("${app.forum.jwt-cache.enabled:true}")
+    private boolean cacheEnabled;
+
+    @Value("${app.forum.jwt-cache.maximum-size:10000}")
+    private long cacheMaximumSize;
+
+    // 已验证的 Token：SHA-256(token) -> 解析结果，在 Token 的 exp 时刻过期
+    private Cache<String, TokenInfo> tokenCache;
+
+    // RS256 签名验证耗时（只统计未命中缓存的请求）
+    private Timer verifyTimer;
+
+    @PostConstruct
+    public void initCache() {
+        tokenCache = Caffeine.newBuilder()
+                .maximumSize(cacheMaximumSize)
+                .expireAfter(new Expiry<String, TokenInfo>() {
+                    @Override
+                    public long expireAfterCreate(String key, TokenInfo info, long currentTime) {
+                        return Math.max(0, Duration.between(Instant.now(), info.expiresAt).toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, TokenInfo info, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, info, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, TokenInfo info, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, tokenCache, "forum.jwt");
+        verifyTimer = meterRegistry.timer("forum.jwt.verify");
+    }
+
     // 预定义的测试 Token 映射
     private static final Map<String, MockUser> MOCK_TOKENS = new HashMap<>() {{
         put("test-token-123", new MockUser(1L, "testuser", "测试用户"));
@@ -33,22 +81,6 @@ public class ForumJwtUtil {
         put("test-token-user2", new MockUser(3L, "user2", "用户2"));
     }};
 
-    // 解析RS256 JWT（使用gamevaultbackend的JwtDecoder）
-    public Claims parseTokenForRS256(String token) {
-        try {
-            // 使用注入的JwtDecoder解析RS256 JWT
-            Jwt jwt = jwtDecoder.decode(token);
-            
-            // 将JWT转换为Claims格式
-            Claims claims = Jwts.claims(jwt.getClaims());
-            logger.debug("RS256 JWT解析成功: {}", jwt.getClaims());
-            return claims;
-        } catch (Exception e) {
-            logger.debug("RS256解析失败: {}", e.getMessage());
-            return null;
-        }
-    }
-
     // 生成 JWT Token（使用RS256算法，与gamevaultbackend统一）
     public String generateToken(Long userId, String username) {
         // 注意：这里应该使用gamevaultbackend的JwtEncoder
@@ -71,27 +103,50 @@ public class ForumJwtUtil {
             return new TokenInfo(true, mockUser.userId, mockUser.username);
         }
 
-        // 只使用RS256算法（与gamevaultbackend统一）
-        try {
-            Claims rs256Claims = parseTokenForRS256(token);
-            if (rs256Claims != null) {
-                // 从RS256 JWT中提取信息
-                String username = rs256Claims.getSubject();
-                Long userId = rs256Claims.get("uid", Long.class);
-                if (userId == null) {
-                    userId = rs256Claims.get("userId", Long.class);
-                }
-                
-                if (username != null && userId != null) {
-                    logger.debug("成功解析RS256 JWT: username={}, userId={}", username, userId);
-                    return new TokenInfo(true, userId, username);
-                }
+        if (token == null || token.isEmpty()) {
+            return new TokenInfo(false, null, null);
+        }
+
+        // 同一 Token 在有效期内只做一次签名验证
+        String cacheKey = cacheEnabled ? hashToken(token) : null;
+        if (cacheKey != null) {
+            TokenInfo cached = tokenCache.getIfPresent(cacheKey);
+            if (cached != null && cached.expiresAt.isAfter(Instant.now())) {
+                return cached;
             }
-        } catch (Exception e) {
-            logger.error("RS256解析失败: {}", e.getMessage());
         }
 
-        return new TokenInfo(false, null, null);
+        long start = System.nanoTime();
+        TokenInfo tokenInfo = verifyToken(token);
+        verifyTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        // 只缓存有效且带 exp 的 Token
+        if (cacheKey != null && tokenInfo.valid && tokenInfo.expiresAt != null) {
+            tokenCache.put(cacheKey, tokenInfo);
+        }
+        return tokenInfo;
+    }
+
+    private TokenInfo verifyToken(String token) {
+        // 本地 RS256 验证（与gamevaultbackend统一），只取需要的声明
+        TokenInfo tokenInfo = jwtVerifier.verify(token);
+        if (tokenInfo.valid) {
+            logger.debug("成功解析RS256 JWT: username={}, userId={}", tokenInfo.username, tokenInfo.userId);
+        } else {
+            logger.debug("RS256 JWT验证失败");
+        }
+        return tokenInfo;
+    }
+
+    // 缓存键：Token 的 SHA-256（不在内存中保留 Token 原文）
+    private static String hashToken(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 不可用", e);
+        }
     }
 
     // Token 解析结果
@@ -99,11 +154,18 @@ public class ForumJwtUtil {
         public final boolean valid;
         public final Long userId;
         public final String username;
+        // Token 的过期时间（exp），Mock Token 与无效 Token 为 null
+        public final Instant expiresAt;
 
         public TokenInfo(boolean valid, Long userId, String username) {
+            this(valid, userId, username, null);
+        }
+
+        public TokenInfo(boolean valid, Long userId, String username, Instant expiresAt) {
             this.valid = valid;
             this.userId = userId;
             this.username = username;
+            this.expiresAt = expiresAt;
         }
     }
 
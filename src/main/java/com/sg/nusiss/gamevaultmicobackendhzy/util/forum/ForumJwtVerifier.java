@@ -0,0 +1,172 @@
+package com.sg.nusiss.gamevaultmicobackendhzy.util.forum;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.sg.nusiss.gamevaultmicobackendhzy.config.auth.RsaKeyProperties;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.converter.RsaKeyConverters;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Signature;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * RS256 Token 本地验证
+ *
+ * 1. 启动时解析一次 RsaKeyProperties 的公钥，每个线程复用一个已初始化的 Signature
+ * 2. 只接受 alg=RS256 且不带 crit 的头部；验证签名后检查 exp / nbf（允许 60 秒时钟偏差，与 JwtDecoder 一致）
+ * 3. 载荷按流式读取，只取 sub、uid / userId、exp、nbf，不构造完整的声明 Map
+ */
+@Component
+public class ForumJwtVerifier {
+
+    private static final Duration CLOCK_SKEW = Duration.ofSeconds(60);
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    @Autowired
+    private RsaKeyProperties rsaKeyProperties;
+
+    private RSAPublicKey publicKey;
+
+    private final ThreadLocal<Signature> signatures = ThreadLocal.withInitial(() -> {
+        try {
+            Signature signature = Signature.getInstance("SHA256withRSA");
+            signature.initVerify(publicKey);
+            return signature;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("无法初始化 RS256 验证", e);
+        }
+    });
+
+    @PostConstruct
+    public void init() throws IOException {
+        try (InputStream in = rsaKeyProperties.getPublicKey().getInputStream()) {
+            publicKey = RsaKeyConverters.x509().convert(in);
+        }
+    }
+
+    /**
+     * 验证 Token 并取出用户信息
+     * @return 验证通过返回有效的 TokenInfo，否则返回无效的 TokenInfo
+     */
+    public ForumJwtUtil.TokenInfo verify(String token) {
+        int first = token.indexOf('.');
+        int second = first < 0 ? -1 : token.indexOf('.', first + 1);
+        if (first <= 0 || second < 0 || token.indexOf('.', second + 1) >= 0) {
+            return invalid();
+        }
+
+        try {
+            if (!isRs256Header(decode(token, 0, first))) {
+                return invalid();
+            }
+
+            byte[] signed = token.substring(0, second).getBytes(StandardCharsets.US_ASCII);
+            byte[] signatureBytes = decode(token, second + 1, token.length());
+            Signature signature = signatures.get();
+            signature.update(signed);
+            if (!signature.verify(signatureBytes)) {
+                return invalid();
+            }
+
+            return readClaims(decode(token, first + 1, second));
+        } catch (IllegalArgumentException | IOException e) {
+            // Base64 / JSON 格式错误
+            return invalid();
+        } catch (GeneralSecurityException e) {
+            // 签名格式错误：丢弃当前线程的 Signature，下次重新初始化
+            signatures.remove();
+            return invalid();
+        }
+    }
+
+    private static byte[] decode(String token, int start, int end) {
+        return Base64.getUrlDecoder().decode(token.substring(start, end));
+    }
+
+    private static boolean isRs256Header(byte[] header) throws IOException {
+        boolean rs256 = false;
+        try (JsonParser parser = JSON_FACTORY.createParser(header)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return false;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("alg".equals(name)) {
+                    rs256 = value == JsonToken.VALUE_STRING && "RS256".equals(parser.getText());
+                } else if ("crit".equals(name)) {
+                    return false;
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return rs256;
+    }
+
+    private static ForumJwtUtil.TokenInfo readClaims(byte[] payload) throws IOException {
+        String username = null;
+        Long uid = null;
+        Long userId = null;
+        Instant expiresAt = null;
+        Instant notBefore = null;
+
+        try (JsonParser parser = JSON_FACTORY.createParser(payload)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return invalid();
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (name) {
+                    case "sub":
+                        username = value == JsonToken.VALUE_STRING ? parser.getText() : null;
+                        break;
+                    case "uid":
+                        uid = value.isNumeric() ? parser.getLongValue() : null;
+                        break;
+                    case "userId":
+                        userId = value.isNumeric() ? parser.getLongValue() : null;
+                        break;
+                    case "exp":
+                        expiresAt = value.isNumeric() ? Instant.ofEpochSecond(parser.getLongValue()) : null;
+                        break;
+                    case "nbf":
+                        notBefore = value.isNumeric() ? Instant.ofEpochSecond(parser.getLongValue()) : null;
+                        break;
+                    default:
+                        parser.skipChildren();
+                }
+            }
+        }
+
+        Instant now = Instant.now();
+        if (expiresAt != null && now.minus(CLOCK_SKEW).isAfter(expiresAt)) {
+            return invalid();
+        }
+        if (notBefore != null && now.plus(CLOCK_SKEW).isBefore(notBefore)) {
+            return invalid();
+        }
+
+        Long id = uid != null ? uid : userId;
+        if (username == null || id == null) {
+            return invalid();
+        }
+        return new ForumJwtUtil.TokenInfo(true, id, username, expiresAt);
+    }
+
+    private static ForumJwtUtil.TokenInfo invalid() {
+        return new ForumJwtUtil.TokenInfo(false, null, null);
+    }
+}
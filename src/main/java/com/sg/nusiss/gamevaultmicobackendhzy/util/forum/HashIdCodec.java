@@ -0,0 +1,293 @@
+package com.sg.nusiss.gamevaultmicobackendhzy.util.forum;
+
+/**
+ * 单个ID的 Hashids 编码/解码（与 org.hashids:hashids 1.0.3 输出逐字符一致）
+ *
+ * 1. 构造时按 Hashids 的规则算出 alphabet / seps / guards，
+ *    并为每个可能的 lottery 字符预先算好加盐洗牌后的字母表（以及第一轮补长用的字母表）
+ * 2. 编码只做一次进制转换和数组拷贝，不再为每次调用重新洗牌、拼接字符串
+ * 3. 解码按 Hashids 的分段规则取出数字后重新编码比对，结果不一致视为无效
+ *
+ * 只处理单个非负ID；多个ID的编码、包含分隔符的哈希由调用方交给 Hashids 处理
+ */
+public final class HashIdCodec {
+
+    /** 与 Hashids.MAX_NUMBER 相同 */
+    public static final long MAX_NUMBER = 9007199254740992L;
+
+    private static final String DEFAULT_ALPHABET = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ1234567890";
+    private static final String DEFAULT_SEPS = "cfhistuCFHISTU";
+    private static final double SEP_DIV = 3.5;
+    private static final int GUARD_DIV = 12;
+
+    private final int minHashLength;
+    private final char[] alphabet;
+    private final char[] seps;
+    private final char[] guards;
+
+    /** lottery 字符在 alphabet 中的下标 -> 加盐洗牌后的字母表 */
+    private final char[][] lotteryAlphabets;
+
+    /** lottery 下标 -> 第一轮补长时的字母表 */
+    private final char[][] paddingAlphabets;
+
+    /** 字符 -> 类型（0 非法，1 alphabet，2 guard，3 sep） */
+    private final byte[] charKinds = new byte[128];
+
+    /** 字符 -> 在 alphabet 中的下标 */
+    private final int[] alphabetIndex = new int[128];
+
+    public HashIdCodec(String salt, int minHashLength) {
+        this.minHashLength = Math.max(minHashLength, 0);
+        String saltValue = salt != null ? salt : "";
+
+        String alphabetValue = DEFAULT_ALPHABET;
+        String sepsValue = DEFAULT_SEPS;
+        for (int i = 0; i < sepsValue.length(); i++) {
+            int j = alphabetValue.indexOf(sepsValue.charAt(i));
+            if (j == -1) {
+                sepsValue = sepsValue.substring(0, i) + " " + sepsValue.substring(i + 1);
+            } else {
+                alphabetValue = alphabetValue.substring(0, j) + " " + alphabetValue.substring(j + 1);
+            }
+        }
+        alphabetValue = alphabetValue.replaceAll("\\s+", "");
+        sepsValue = shuffle(sepsValue.replaceAll("\\s+", ""), saltValue);
+
+        if (sepsValue.isEmpty() || ((float) alphabetValue.length() / sepsValue.length()) > SEP_DIV) {
+            int sepsLength = (int) Math.ceil(alphabetValue.length() / SEP_DIV);
+            if (sepsLength == 1) {
+                sepsLength++;
+            }
+            if (sepsLength > sepsValue.length()) {
+                int diff = sepsLength - sepsValue.length();
+                sepsValue += alphabetValue.substring(0, diff);
+                alphabetValue = alphabetValue.substring(diff);
+            } else {
+                sepsValue = sepsValue.substring(0, sepsLength);
+            }
+        }
+
+        alphabetValue = shuffle(alphabetValue, saltValue);
+        int guardCount = (int) Math.ceil((double) alphabetValue.length() / GUARD_DIV);
+        String guardsValue;
+        if (alphabetValue.length() < 3) {
+            guardsValue = sepsValue.substring(0, guardCount);
+            sepsValue = sepsValue.substring(guardCount);
+        } else {
+            guardsValue = alphabetValue.substring(0, guardCount);
+            alphabetValue = alphabetValue.substring(guardCount);
+        }
+
+        this.alphabet = alphabetValue.toCharArray();
+        this.seps = sepsValue.toCharArray();
+        this.guards = guardsValue.toCharArray();
+
+        int length = alphabet.length;
+        lotteryAlphabets = new char[length][];
+        paddingAlphabets = new char[length][];
+        for (int i = 0; i < length; i++) {
+            String buffer = alphabet[i] + saltValue + alphabetValue;
+            String shuffled = shuffle(alphabetValue, buffer.substring(0, length));
+            lotteryAlphabets[i] = shuffled.toCharArray();
+            paddingAlphabets[i] = shuffle(shuffled, shuffled).toCharArray();
+        }
+
+        for (int i = 0; i < length; i++) {
+            charKinds[alphabet[i]] = 1;
+            alphabetIndex[alphabet[i]] = i;
+        }
+        for (char c : guards) {
+            charKinds[c] = 2;
+        }
+        for (char c : seps) {
+            charKinds[c] = 3;
+        }
+    }
+
+    /**
+     * 编码单个ID
+     * @return id 为负数时返回空串（与 Hashids 一致）
+     * @throws IllegalArgumentException id 大于 MAX_NUMBER
+     */
+    public String encode(long id) {
+        if (id < 0) {
+            return "";
+        }
+        if (id > MAX_NUMBER) {
+            throw new IllegalArgumentException("number can not be greater than " + MAX_NUMBER + "L");
+        }
+
+        int numberHash = (int) (id % 100);
+        int lottery = numberHash % alphabet.length;
+        char[] shuffled = lotteryAlphabets[lottery];
+        int base = shuffled.length;
+
+        // 数字位（最多 13 位）从右向左写入
+        char[] digits = new char[16];
+        int digitStart = digits.length;
+        long value = id;
+        do {
+            digits[--digitStart] = shuffled[(int) (value % base)];
+            value /= base;
+        } while (value > 0);
+        int digitCount = digits.length - digitStart;
+
+        int length = 1 + digitCount;
+        char[] out = new char[Math.max(minHashLength, length + 2)];
+        int start = 1;
+        out[start] = alphabet[lottery];
+        System.arraycopy(digits, digitStart, out, start + 1, digitCount);
+
+        if (length < minHashLength) {
+            out[0] = guards[(numberHash + out[start]) % guards.length];
+            start = 0;
+            length++;
+            if (length < minHashLength) {
+                out[start + length] = guards[(numberHash + out[start + 2]) % guards.length];
+                length++;
+            }
+        }
+        if (length >= minHashLength) {
+            return new String(out, start, length);
+        }
+        return pad(new String(out, start, length), paddingAlphabets[lottery]);
+    }
+
+    /**
+     * 补长：与 Hashids 相同，每轮用字母表对自身洗牌后包在两侧，再居中截取
+     */
+    private String pad(String hash, char[] firstAlphabet) {
+        String current = hash;
+        String alphabetValue = new String(firstAlphabet);
+        int half = alphabetValue.length() / 2;
+        boolean first = true;
+        while (current.length() < minHashLength) {
+            if (!first) {
+                alphabetValue = shuffle(alphabetValue, alphabetValue);
+            }
+            first = false;
+            current = alphabetValue.substring(half) + current + alphabetValue.substring(0, half);
+            int excess = current.length() - minHashLength;
+            if (excess > 0) {
+                int startPos = excess / 2;
+                current = current.substring(startPos, startPos + minHashLength);
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 解码单个ID
+     * @return 解码结果；哈希无效时返回 -1；包含多个ID时返回 -2（由调用方交给 Hashids）
+     */
+    public long decode(String hash) {
+        int length = hash.length();
+        if (length == 0) {
+            return -1;
+        }
+
+        // 与 Hashids 相同：按 guard 切分（末尾的空段不计），2 或 3 段时取第 2 段，否则取第 1 段
+        int firstGuard = -1;
+        int secondGuard = -1;
+        int lastNonGuard = -1;
+        for (int i = 0; i < length; i++) {
+            char c = hash.charAt(i);
+            int kind = c < 128 ? charKinds[c] : 0;
+            if (kind == 0) {
+                return -1;
+            }
+            if (kind == 2) {
+                if (firstGuard < 0) {
+                    firstGuard = i;
+                } else if (secondGuard < 0) {
+                    secondGuard = i;
+                }
+            } else {
+                lastNonGuard = i;
+            }
+        }
+        int partStart;
+        int partEnd;
+        if (firstGuard < 0) {
+            partStart = 0;
+            partEnd = length;
+        } else {
+            int segments = countSegments(hash, lastNonGuard);
+            if (segments == 2 || segments == 3) {
+                partStart = firstGuard + 1;
+                partEnd = secondGuard < 0 ? length : secondGuard;
+            } else {
+                partStart = 0;
+                partEnd = firstGuard;
+            }
+        }
+        if (partEnd - partStart < 1) {
+            return -1;
+        }
+
+        int lottery = alphabetIndex[hash.charAt(partStart)];
+        if (charKinds[hash.charAt(partStart)] != 1) {
+            return -1;
+        }
+        char[] shuffled = lotteryAlphabets[lottery];
+        long value = 0;
+        for (int i = partStart + 1; i < partEnd; i++) {
+            char c = hash.charAt(i);
+            if (charKinds[c] == 3) {
+                return -2;
+            }
+            value = value * shuffled.length + indexOf(shuffled, c);
+        }
+
+        if (value < 0 || value > MAX_NUMBER || !encode(value).equals(hash)) {
+            return -1;
+        }
+        return value;
+    }
+
+    /**
+     * 按 guard 切分后的段数（String.split 语义：去掉末尾的空段）
+     */
+    private int countSegments(String hash, int lastNonGuard) {
+        if (lastNonGuard < 0) {
+            return 0;
+        }
+        int segments = 1;
+        for (int i = 0; i < lastNonGuard; i++) {
+            if (charKinds[hash.charAt(i)] == 2) {
+                segments++;
+            }
+        }
+        return segments;
+    }
+
+    private static int indexOf(char[] chars, char c) {
+        for (int i = 0; i < chars.length; i++) {
+            if (chars[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Hashids.consistentShuffle
+     */
+    private static String shuffle(String alphabet, String salt) {
+        if (salt.isEmpty()) {
+            return alphabet;
+        }
+        char[] chars = alphabet.toCharArray();
+        for (int i = chars.length - 1, v = 0, p = 0; i > 0; i--, v++) {
+            v %= salt.length();
+            int ascii = salt.charAt(v);
+            p += ascii;
+            int j = (ascii + v + p) % i;
+            char tmp = chars[j];
+            chars[j] = chars[i];
+            chars[i] = tmp;
+        }
+        return new String(chars);
+    }
+}
@@ -1,6 +1,12 @@
 package com.sg.nusiss.gamevaultmicobackendhzy.util.forum;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.hashids.Hashids;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import java.util.Arrays;
@@ -9,19 +15,28 @@ import java.util.Objects;
 /**
  * HashID工具类 - 用于加密/解密ID
  * 将数字ID转换为短字符串，避免在URL中暴露真实ID
+ *
+ * 单个ID的编码/解码使用预先计算好字母表的 HashIdCodec，并用有界缓存保存热点ID（ID <-> 哈希双向）；
+ * 启动时与 Hashids 逐个比对，结果不一致时该类型退回 Hashids
  */
 @Component
 public class HashIdUtil {
 
+    private static final Logger logger = LoggerFactory.getLogger(HashIdUtil.class);
+
     private final Hashids postHashids;
-    private final Hashids userHashids;
-    private final Hashids forumHashids;
+    private final IdCodec postCodec;
+    private final IdCodec userCodec;
+    private final IdCodec forumCodec;
 
-    public HashIdUtil(@Value("${hashid.salt:forum-backend-2024}") String salt) {
+    public HashIdUtil(@Value("${hashid.salt:forum-backend-2024}") String salt,
+                      @Value("${app.forum.hashid-cache.maximum-size:10000}") long cacheMaximumSize,
+                      MeterRegistry meterRegistry) {
         // 使用不同的盐值和最小长度来区分不同类型的ID
         this.postHashids = new Hashids(salt + "-post", 8);
-        this.userHashids = new Hashids(salt + "-user", 6);
-        this.forumHashids = new Hashids(salt + "-forum", 6);
+        this.postCodec = new IdCodec("post", postHashids, salt + "-post", 8, cacheMaximumSize, meterRegistry);
+        this.userCodec = new IdCodec("user", new Hashids(salt + "-user", 6), salt + "-user", 6, cacheMaximumSize, meterRegistry);
+        this.forumCodec = new IdCodec("forum", new Hashids(salt + "-forum", 6), salt + "-forum", 6, cacheMaximumSize, meterRegistry);
     }
 
     // ==================== Post ID 编码/解码 ====================
@@ -32,7 +47,7 @@ public class HashIdUtil {
      */
     public String encodePostId(Long id) {
         if (id == null) return null;
-        return postHashids.encode(id);
+        return postCodec.encode(id);
     }
 
     /**
@@ -41,46 +56,34 @@ public class HashIdUtil {
      */
     public Long decodePostId(String hash) {
         if (hash == null || hash.isEmpty()) return null;
-        try {
-            long[] decode = postHashids.decode(hash);
-            return decode.length > 0 ? decode[0] : null;
-        } catch (Exception e) {
-            return null;
-        }
+        long id = postCodec.decode(hash);
+        return id >= 0 ? id : null;
     }
 
     // ==================== User ID 编码/解码 ====================
 
     public String encodeUserId(Long id) {
         if (id == null) return null;
-        return userHashids.encode(id);
+        return userCodec.encode(id);
     }
 
     public Long decodeUserId(String hash) {
         if (hash == null || hash.isEmpty()) return null;
-        try {
-            long[] decode = userHashids.decode(hash);
-            return decode.length > 0 ? decode[0] : null;
-        } catch (Exception e) {
-            return null;
-        }
+        long id = userCodec.decode(hash);
+        return id >= 0 ? id : null;
     }
 
     // ==================== Forum ID 编码/解码 ====================
 
     public String encodeForumId(Long id) {
         if (id == null) return null;
-        return forumHashids.encode(id);
+        return forumCodec.encode(id);
     }
 
     public Long decodeForumId(String hash) {
         if (hash == null || hash.isEmpty()) return null;
-        try {
-            long[] decode = forumHashids.decode(hash);
-            return decode.length > 0 ? decode[0] : null;
-        } catch (Exception e) {
-            return null;
-        }
+        long id = forumCodec.decode(hash);
+        return id >= 0 ? id : null;
     }
 
     // ==================== 批量编码 ====================
@@ -125,7 +128,7 @@ public class HashIdUtil {
      * 编码单个ID的辅助方法（兼容原始类型）
      */
     public String encode(long id) {
-        return postHashids.encode(id);
+        return postCodec.encode(id);
     }
 
     /**
@@ -133,11 +136,96 @@ public class HashIdUtil {
      */
     public long decode(String hash) {
         if (hash == null || hash.isEmpty()) return -1;
-        try {
-            long[] decode = postHashids.decode(hash);
-            return decode.length > 0 ? decode[0] : -1;
-        } catch (Exception e) {
-            return -1;
+        return postCodec.decode(hash);
+    }
+
+    // ==================== 单类型编码器 ====================
+
+    /**
+     * 一种ID类型的编码器：HashIdCodec + 双向缓存，多ID哈希和自检失败时使用 Hashids
+     */
+    private static final class IdCodec {
+
+        // 自检比对的ID：0..SELF_CHECK_COUNT-1 以及若干大数
+        private static final int SELF_CHECK_COUNT = 1000;
+
+        private final Hashids hashids;
+        private final HashIdCodec codec;
+
+        // ID -> 哈希、哈希 -> ID（只缓存有效的单个ID）
+        private final Cache<Long, String> encodeCache;
+        private final Cache<String, Long> decodeCache;
+
+        IdCodec(String name, Hashids hashids, String salt, int minHashLength,
+                long cacheMaximumSize, MeterRegistry meterRegistry) {
+            this.hashids = hashids;
+            HashIdCodec candidate = new HashIdCodec(salt, minHashLength);
+            if (matchesHashids(candidate)) {
+                this.codec = candidate;
+            } else {
+                logger.error("HashIdCodec 与 Hashids 输出不一致，{} ID 改用 Hashids 编码", name);
+                this.codec = null;
+            }
+
+            this.encodeCache = Caffeine.newBuilder().maximumSize(cacheMaximumSize).recordStats().build();
+            this.decodeCache = Caffeine.newBuilder().maximumSize(cacheMaximumSize).recordStats().build();
+            CaffeineCacheMetrics.monitor(meterRegistry, encodeCache, "forum.hashid." + name + ".encode");
+            CaffeineCacheMetrics.monitor(meterRegistry, decodeCache, "forum.hashid." + name + ".decode");
+        }
+
+        private boolean matchesHashids(HashIdCodec candidate) {
+            long[] large = {Integer.MAX_VALUE, 1L << 40, HashIdCodec.MAX_NUMBER - 1, HashIdCodec.MAX_NUMBER};
+            try {
+                for (long id = 0; id < SELF_CHECK_COUNT + large.length; id++) {
+                    long value = id < SELF_CHECK_COUNT ? id : large[(int) (id - SELF_CHECK_COUNT)];
+                    String hash = hashids.encode(value);
+                    if (!hash.equals(candidate.encode(value)) || candidate.decode(hash) != value) {
+                        return false;
+                    }
+                }
+                return true;
+            } catch (RuntimeException e) {
+                return false;
+            }
+        }
+
+        String encode(long id) {
+            if (codec == null || id < 0 || id > HashIdCodec.MAX_NUMBER) {
+                // 负数返回空串、超出范围抛异常，与 Hashids 一致
+                return hashids.encode(id);
+            }
+            String hash = encodeCache.getIfPresent(id);
+            if (hash == null) {
+                hash = codec.encode(id);
+                encodeCache.put(id, hash);
+                decodeCache.put(hash, id);
+            }
+            return hash;
+        }
+
+        /**
+         * @return 解码结果，无效时返回 -1
+         */
+        long decode(String hash) {
+            Long cached = decodeCache.getIfPresent(hash);
+            if (cached != null) {
+                return cached;
+            }
+            long id = codec != null ? codec.decode(hash) : -2;
+            if (id == -2) {
+                // 多个ID的哈希：取第一个，与原实现一致
+                try {
+                    long[] decode = hashids.decode(hash);
+                    return decode.length > 0 ? decode[0] : -1;
+                } catch (Exception e) {
+                    return -1;
+                }
+            }
+            if (id >= 0) {
+                decodeCache.put(hash, id);
+                encodeCache.put(id, hash);
+            }
+            return id;
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,86 @@
+package com.sg.nusiss.gamevaultmicobackendhzy.util.forum;
+
+/**
+ * long 类型的开放寻址哈希集合
+ * 直接存储原始 long，不产生装箱对象；0 作为空槽标记，不能存入
+ * 非线程安全，由调用方加锁
+ */
+public class LongHashSet {
+
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private long[] slots;
+    private int size;
+    private int resizeThreshold;
+
+    public LongHashSet(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        this.slots = new long[capacity];
+        this.resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    /**
+     * 加入元素
+     * @return true 如果之前不存在
+     */
+    public boolean add(long key) {
+        checkKey(key);
+        int mask = slots.length - 1;
+        int idx = slot(key, mask);
+        while (slots[idx] != 0) {
+            if (slots[idx] == key) {
+                return false;
+            }
+            idx = (idx + 1) & mask;
+        }
+        slots[idx] = key;
+        if (++size > resizeThreshold) {
+            resize();
+        }
+        return true;
+    }
+
+    public boolean contains(long key) {
+        checkKey(key);
+        int mask = slots.length - 1;
+        int idx = slot(key, mask);
+        while (slots[idx] != 0) {
+            if (slots[idx] == key) {
+                return true;
+            }
+            idx = (idx + 1) & mask;
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void resize() {
+        long[] old = slots;
+        slots = new long[old.length << 1];
+        resizeThreshold = (int) (slots.length * LOAD_FACTOR);
+        int mask = slots.length - 1;
+        for (long key : old) {
+            if (key != 0) {
+                int idx = slot(key, mask);
+                while (slots[idx] != 0) {
+                    idx = (idx + 1) & mask;
+                }
+                slots[idx] = key;
+            }
+        }
+    }
+
+    private static int slot(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private static void checkKey(long key) {
+        if (key == 0) {
+            throw new IllegalArgumentException("0 不能作为 LongHashSet 的元素");
+        }
+    }
+}
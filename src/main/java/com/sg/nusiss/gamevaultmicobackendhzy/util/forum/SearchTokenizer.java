@@ -0,0 +1,91 @@
+package com.sg.nusiss.gamevaultmicobackendhzy.util.forum;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 搜索分词器（进程内倒排索引使用）
+ * 1. 字母、数字连续段作为一个词，统一小写
+ * 2. 中日韩文字没有空格分词，按相邻两字切成二元组（"原神攻略" -> 原神 / 神攻 / 攻略），
+ *    单独的一个字作为一个词
+ * 3. 其余字符（标点、空白等）作为分隔符
+ */
+public final class SearchTokenizer {
+
+    private SearchTokenizer() {
+    }
+
+    /**
+     * 切分文本，返回的词按出现顺序排列，可能重复
+     */
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+
+        String lower = text.toLowerCase(Locale.ROOT);
+        StringBuilder word = new StringBuilder();
+        int prevCjk = -1;       // 上一个中日韩字符
+        boolean cjkEmitted = false;  // 当前连续段是否已输出过二元组
+
+        for (int i = 0; i < lower.length(); ) {
+            int cp = lower.codePointAt(i);
+            i += Character.charCount(cp);
+
+            if (isCjk(cp)) {
+                flushWord(word, tokens);
+                if (prevCjk >= 0) {
+                    tokens.add(new StringBuilder(4).appendCodePoint(prevCjk).appendCodePoint(cp).toString());
+                    cjkEmitted = true;
+                }
+                prevCjk = cp;
+                continue;
+            }
+
+            flushCjk(prevCjk, cjkEmitted, tokens);
+            prevCjk = -1;
+            cjkEmitted = false;
+
+            if (Character.isLetterOrDigit(cp)) {
+                word.appendCodePoint(cp);
+            } else {
+                flushWord(word, tokens);
+            }
+        }
+
+        flushCjk(prevCjk, cjkEmitted, tokens);
+        flushWord(word, tokens);
+        return tokens;
+    }
+
+    /**
+     * 是否是单个中日韩字符组成的词（查询时需要匹配所有包含该字的二元组）
+     */
+    public static boolean isSingleCjk(String token) {
+        return token.codePointCount(0, token.length()) == 1 && isCjk(token.codePointAt(0));
+    }
+
+    public static boolean isCjk(int cp) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(cp);
+        return script == Character.UnicodeScript.HAN
+                || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA
+                || script == Character.UnicodeScript.HANGUL;
+    }
+
+    private static void flushWord(StringBuilder word, List<String> tokens) {
+        if (word.length() > 0) {
+            tokens.add(word.toString());
+            word.setLength(0);
+        }
+    }
+
+    private static void flushCjk(int prevCjk, boolean cjkEmitted, List<String> tokens) {
+        // 连续段只有一个字时，没有二元组可输出，保留单字
+        if (prevCjk >= 0 && !cjkEmitted) {
+            tokens.add(new String(Character.toChars(prevCjk)));
+        }
+    }
+}
@@ -7,6 +7,9 @@
 SET timezone = 'Asia/Singapore';
 SET client_encoding = 'UTF8';
 
+-- 三元组索引扩展（帖子搜索的子串匹配，需要有建扩展的权限，失败时搜索退化为顺序扫描）
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
 -- ================================================================
 -- 1. 核心业务表
 -- ================================================================
@@ -82,6 +85,13 @@ CREATE TABLE IF NOT EXISTS contents (
     CONSTRAINT fk_contents_reply_to FOREIGN KEY (reply_to) REFERENCES contents(content_id) ON DELETE SET NULL
 );
 
+-- 全文检索向量（标题权重 A，正文权重 B），由数据库在插入/更新时自动维护
+ALTER TABLE contents ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('simple', COALESCE(title, '')), 'A') ||
+        setweight(to_tsvector('simple', COALESCE(body_plain, '')), 'B')
+    ) STORED;
+
 -- 属性定义表（定义可用的属性类型）
 CREATE TABLE IF NOT EXISTS attribute_definitions (
     attr_id SERIAL PRIMARY KEY,
@@ -147,6 +157,19 @@ CREATE TABLE IF NOT EXISTS user_content_relations (
     UNIQUE(user_id, content_id, relation_type_id)
 );
 
+-- 帖子摘要表（列表页读模型，由写路径同步维护，避免列表查询做 EAV 聚合）
+CREATE TABLE IF NOT EXISTS post_summary (
+    content_id BIGINT PRIMARY KEY,
+    title VARCHAR(200),
+    excerpt TEXT,
+    author_id BIGINT NOT NULL,
+    created_date TIMESTAMP,
+    view_count INTEGER NOT NULL DEFAULT 0,
+    like_count INTEGER NOT NULL DEFAULT 0,
+    reply_count INTEGER NOT NULL DEFAULT 0,
+    CONSTRAINT fk_post_summary_content FOREIGN KEY (content_id) REFERENCES contents(content_id) ON DELETE CASCADE
+);
+
 -- ================================================================
 -- 3. 创建索引
 -- ================================================================
@@ -174,10 +197,19 @@ CREATE INDEX IF NOT EXISTS idx_contents_created ON contents(created_date DESC);
 CREATE INDEX IF NOT EXISTS idx_contents_type_status ON contents(content_type, status);
 CREATE INDEX IF NOT EXISTS idx_contents_reply_to ON contents(reply_to);
 
+-- 帖子搜索索引（只覆盖有效帖子）：分词匹配走 GIN(tsvector)，中文等子串匹配走三元组 GIN
+CREATE INDEX IF NOT EXISTS idx_contents_search ON contents USING GIN (search_vector) WHERE content_type = 'post' AND status = 'active';
+CREATE INDEX IF NOT EXISTS idx_contents_title_trgm ON contents USING GIN (title gin_trgm_ops) WHERE content_type = 'post' AND status = 'active';
+CREATE INDEX IF NOT EXISTS idx_contents_body_trgm ON contents USING GIN (body_plain gin_trgm_ops) WHERE content_type = 'post' AND status = 'active';
+
 -- 属性查询索引
 CREATE INDEX IF NOT EXISTS idx_content_attrs_content ON content_attributes(content_id);
 CREATE INDEX IF NOT EXISTS idx_content_attrs_attr ON content_attributes(attr_id);
 
+-- 帖子摘要索引（帖子流游标分页：(created_date, content_id) 倒序）
+CREATE INDEX IF NOT EXISTS idx_post_summary_feed ON post_summary(created_date DESC, content_id DESC);
+CREATE INDEX IF NOT EXISTS idx_post_summary_author ON post_summary(author_id, created_date DESC, content_id DESC);
+
 -- 统计查询索引
 CREATE INDEX IF NOT EXISTS idx_content_metrics_content ON content_metrics(content_id);
 CREATE INDEX IF NOT EXISTS idx_content_metrics_metric ON content_metrics(metric_id);
@@ -186,6 +218,7 @@ CREATE INDEX IF NOT EXISTS idx_content_metrics_metric ON content_metrics(metric_
 CREATE INDEX IF NOT EXISTS idx_relations_user ON user_content_relations(user_id);
 CREATE INDEX IF NOT EXISTS idx_relations_content ON user_content_relations(content_id);
 CREATE INDEX IF NOT EXISTS idx_relations_type ON user_content_relations(relation_type_id);
+CREATE INDEX IF NOT EXISTS idx_relations_type_created ON user_content_relations(relation_type_id, created_date);
 
 -- ================================================================
 -- 4. 创建触发器
@@ -244,6 +277,58 @@ INSERT INTO relationship_types (type_name, description) VALUES
 ('view', '用户浏览内容')
 ON CONFLICT (type_name) DO NOTHING;
 
+-- 回填点赞数：旧版本只写 user_content_relations，不维护 content_metrics.like_count，
+-- 而点赞语句在 content_metrics 的现有值上增减，升级时必须先按点赞关系重新计数（可重复执行）
+INSERT INTO content_metrics (content_id, metric_id, metric_value)
+SELECT
+    c.content_id,
+    (SELECT metric_id FROM metric_definitions WHERE metric_name = 'like_count'),
+    COUNT(ucr.content_id)
+FROM contents c
+LEFT JOIN user_content_relations ucr
+       ON ucr.content_id = c.content_id
+      AND ucr.relation_type_id = (SELECT type_id FROM relationship_types WHERE type_name = 'like')
+GROUP BY c.content_id
+ON CONFLICT (content_id, metric_id) DO UPDATE SET
+    metric_value = EXCLUDED.metric_value,
+    updated_date = CURRENT_TIMESTAMP
+WHERE content_metrics.metric_value IS DISTINCT FROM EXCLUDED.metric_value;
+
+-- 回填帖子摘要（已有摘要的帖子不覆盖）
+INSERT INTO post_summary (content_id, title, excerpt, author_id, created_date, view_count, like_count, reply_count)
+SELECT
+    c.content_id,
+    c.title,
+    LEFT(c.body_plain, 200),
+    c.author_id,
+    c.created_date,
+    COALESCE((
+        SELECT cm.metric_value FROM content_metrics cm
+        JOIN metric_definitions md ON cm.metric_id = md.metric_id
+        WHERE cm.content_id = c.content_id AND md.metric_name = 'view_count'
+    ), 0),
+    (
+        SELECT COUNT(*) FROM user_content_relations ucr
+        WHERE ucr.content_id = c.content_id
+          AND ucr.relation_type_id = (SELECT type_id FROM relationship_types WHERE type_name = 'like')
+    ),
+    COALESCE((
+        SELECT cm.metric_value FROM content_metrics cm
+        JOIN metric_definitions md ON cm.metric_id = md.metric_id
+        WHERE cm.content_id = c.content_id AND md.metric_name = 'reply_count'
+    ), 0)
+FROM contents c
+WHERE c.content_type = 'post' AND c.status = 'active'
+ON CONFLICT (content_id) DO NOTHING;
+
+-- 已有摘要的点赞数与回填后的 content_metrics 对齐
+UPDATE post_summary ps
+SET like_count = cm.metric_value
+FROM content_metrics cm
+WHERE cm.content_id = ps.content_id
+  AND cm.metric_id = (SELECT metric_id FROM metric_definitions WHERE metric_name = 'like_count')
+  AND ps.like_count IS DISTINCT FROM cm.metric_value;
+
 -- ================================================================
 -- 6. 创建视图和函数
 -- ================================================================
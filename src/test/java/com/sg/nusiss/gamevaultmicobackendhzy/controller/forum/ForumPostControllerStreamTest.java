@@ -0,0 +1,122 @@
+package com.sg.nusiss.gamevaultmicobackendhzy.controller.forum;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sg.nusiss.gamevaultmicobackendhzy.service.forum.ForumContentLikeService;
+import com.sg.nusiss.gamevaultmicobackendhzy.service.forum.StreamQueryLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.function.LongConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 流式接口的许可：无论响应体是否执行，都只归还一次
+ */
+class ForumPostControllerStreamTest {
+
+    private ForumPostController controller;
+    private StreamQueryLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        limiter = new StreamQueryLimiter();
+        ReflectionTestUtils.setField(limiter, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(limiter, "maxConcurrent", 1);
+        ReflectionTestUtils.setField(limiter, "acquireTimeoutMs", 0L);
+        limiter.init();
+
+        ForumContentLikeService contentLikeService = mock(ForumContentLikeService.class);
+        doAnswer(inv -> {
+            LongConsumer consumer = inv.getArgument(1);
+            consumer.accept(10L);
+            consumer.accept(11L);
+            return null;
+        }).when(contentLikeService).scanUserLikedContentIds(eq(1L), any());
+
+        controller = new ForumPostController();
+        ReflectionTestUtils.setField(controller, "streamQueryLimiter", limiter);
+        ReflectionTestUtils.setField(controller, "contentLikeService", contentLikeService);
+        ReflectionTestUtils.setField(controller, "objectMapper", new ObjectMapper());
+    }
+
+    private static MockHttpServletRequest newRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/forum/posts/likes/my/stream");
+        request.setAsyncSupported(true);
+        request.setAttribute("userId", 1L);
+        return request;
+    }
+
+    /**
+     * 按 Spring MVC 的方式开始异步处理，runBody 为 false 时任务提交后不会被执行
+     */
+    private static void startAsync(MockHttpServletRequest request, MockHttpServletResponse response,
+                                   StreamingResponseBody body, boolean runBody) throws Exception {
+        WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(request);
+        asyncManager.setAsyncWebRequest(new StandardServletAsyncWebRequest(request, response));
+        asyncManager.setTaskExecutor(task -> {
+            if (runBody) {
+                task.run();
+            }
+        });
+        asyncManager.startCallableProcessing(() -> {
+            body.writeTo(response.getOutputStream());
+            return null;
+        });
+    }
+
+    @Test
+    void permitIsReleasedOnceAfterBodyRuns() throws Exception {
+        MockHttpServletRequest request = newRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        ResponseEntity<StreamingResponseBody> entity = controller.streamMyLikedContentIds(request);
+        assertThat(entity.getStatusCode()).isEqualTo(HttpStatus.OK);
+        startAsync(request, response, entity.getBody(), true);
+        request.getAsyncContext().complete();
+
+        assertThat(response.getContentAsString()).isEqualTo("{\"contentIds\":[10,11],\"total\":2}");
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void permitIsReleasedWhenRequestCompletesBeforeBodyRuns() throws Exception {
+        MockHttpServletRequest request = newRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        ResponseEntity<StreamingResponseBody> entity = controller.streamMyLikedContentIds(request);
+        startAsync(request, response, entity.getBody(), false);
+        // 超时或客户端断开：响应体没有执行，请求就结束了
+        request.getAsyncContext().complete();
+
+        // 之后才执行的响应体不再输出，也不会重复归还
+        entity.getBody().writeTo(response.getOutputStream());
+        assertThat(response.getContentAsString()).isEmpty();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void rejectsWithServiceUnavailableWhenNoPermitIsLeft() {
+        assertThat(limiter.tryAcquire()).isTrue();
+
+        ResponseEntity<StreamingResponseBody> entity = controller.streamMyLikedContentIds(newRequest());
+
+        assertThat(entity.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+    }
+}
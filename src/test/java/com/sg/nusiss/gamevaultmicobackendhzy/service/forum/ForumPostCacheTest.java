@@ -0,0 +1,205 @@
+package com.sg.nusiss.gamevaultmicobackendhzy.service.forum;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.sg.nusiss.gamevaultmicobackendhzy.entity.forum.ForumContent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 两个节点共用一个内存中的 Redis 替身：键值、Hash 和失效频道（发布时同步投递给所有节点）
+ */
+class ForumPostCacheTest {
+
+    private static final String CHANNEL = "forum:cache:invalidate";
+
+    private final Map<String, String> values = new ConcurrentHashMap<>();
+    private final Map<String, Map<Object, Object>> hashes = new ConcurrentHashMap<>();
+    private final List<ForumPostCache> nodes = new ArrayList<>();
+
+    private StringRedisTemplate redisTemplate;
+    private ValueOperations<String, String> valueOps;
+    private ForumPostCache nodeA;
+    private ForumPostCache nodeB;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(StringRedisTemplate.class);
+        valueOps = mock(ValueOperations.class);
+        HashOperations<String, Object, Object> hashOps = mock(HashOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOps);
+        when(redisTemplate.opsForHash()).thenReturn(hashOps);
+
+        when(valueOps.get(anyString())).thenAnswer(inv -> values.get(inv.<String>getArgument(0)));
+        doAnswer(inv -> values.put(inv.getArgument(0), inv.getArgument(1)))
+                .when(valueOps).set(anyString(), anyString(), any(Duration.class));
+        when(hashOps.get(anyString(), any())).thenAnswer(inv ->
+                hashes.getOrDefault(inv.<String>getArgument(0), Map.of()).get(inv.getArgument(1)));
+        doAnswer(inv -> hashes.computeIfAbsent(inv.getArgument(0), k -> new ConcurrentHashMap<>())
+                .put(inv.getArgument(1), inv.getArgument(2)))
+                .when(hashOps).put(anyString(), any(), any());
+        when(redisTemplate.delete(anyString())).thenAnswer(inv -> {
+            String key = inv.getArgument(0);
+            return values.remove(key) != null | hashes.remove(key) != null;
+        });
+        when(redisTemplate.delete(anyCollection())).thenAnswer(inv -> {
+            Collection<String> keys = inv.getArgument(0);
+            return keys.stream().filter(key -> values.remove(key) != null).count();
+        });
+        when(redisTemplate.convertAndSend(eq(CHANNEL), anyString())).thenAnswer(inv -> {
+            String message = inv.getArgument(1);
+            nodes.forEach(node -> ReflectionTestUtils.invokeMethod(node, "onInvalidate", message));
+            return (long) nodes.size();
+        });
+
+        nodeA = newNode();
+        nodeB = newNode();
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodes.forEach(ForumPostCache::shutdown);
+    }
+
+    private ForumPostCache newNode() {
+        ForumPostCache cache = new ForumPostCache();
+        ReflectionTestUtils.setField(cache, "redisTemplate", redisTemplate);
+        ReflectionTestUtils.setField(cache, "redisConnectionFactory", mock(RedisConnectionFactory.class));
+        ReflectionTestUtils.setField(cache, "objectMapper", new ObjectMapper().findAndRegisterModules());
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "localMaximumSize", 100L);
+        ReflectionTestUtils.setField(cache, "localTtlSeconds", 10L);
+        ReflectionTestUtils.setField(cache, "localFallbackTtlSeconds", 2L);
+        ReflectionTestUtils.setField(cache, "redisTtlSeconds", 60L);
+        ReflectionTestUtils.setField(cache, "feedPages", 3);
+        cache.init();
+
+        // 用已订阅状态的容器替换真实容器（替身 Redis 的频道由 convertAndSend 直接投递）
+        cache.shutdown();
+        RedisMessageListenerContainer container = mock(RedisMessageListenerContainer.class);
+        when(container.isListening()).thenReturn(true);
+        ReflectionTestUtils.setField(cache, "listenerContainer", container);
+
+        nodes.add(cache);
+        return cache;
+    }
+
+    private static ForumContent post(long id, int viewCount) {
+        ForumContent post = new ForumContent();
+        post.setContentId(id);
+        post.setTitle("post " + id);
+        post.setViewCount(viewCount);
+        return post;
+    }
+
+    @Test
+    void otherNodeReadsThroughRedisAndKeepsLocalCopy() {
+        nodeA.putPost(post(1L, 5));
+
+        assertThat(nodeB.getPost(1L).getViewCount()).isEqualTo(5);
+
+        values.clear();
+        assertThat(nodeB.getPost(1L).getViewCount()).isEqualTo(5);
+    }
+
+    @Test
+    void evictOnOneNodeInvalidatesLocalCopiesOnAllNodes() {
+        nodeA.putPost(post(1L, 5));
+        nodeB.getPost(1L);
+
+        nodeA.evictPost(1L);
+
+        assertThat(values).isEmpty();
+        assertThat(nodeA.getPost(1L)).isNull();
+        assertThat(nodeB.getPost(1L)).isNull();
+    }
+
+    @Test
+    void batchEvictSendsOneMessageForAllPosts() {
+        nodeA.putPost(post(1L, 5));
+        nodeA.putPost(post(2L, 7));
+        nodeA.putPost(post(3L, 9));
+        nodeB.getPost(1L);
+        nodeB.getPost(2L);
+        nodeB.getPost(3L);
+
+        nodeA.evictPosts(List.of(1L, 2L));
+
+        verify(redisTemplate, times(1)).convertAndSend(CHANNEL, "post:1,2");
+        assertThat(nodeB.getPost(1L)).isNull();
+        assertThat(nodeB.getPost(2L)).isNull();
+        assertThat(nodeB.getPost(3L).getViewCount()).isEqualTo(9);
+    }
+
+    @Test
+    void feedEvictionReachesOtherNodes() {
+        nodeA.putFeedPage(0, 10, List.of(post(1L, 5)));
+        assertThat(nodeB.getFeedPage(0, 10)).hasSize(1);
+
+        nodeA.evictFeed();
+
+        assertThat(hashes).isEmpty();
+        assertThat(nodeB.getFeedPage(0, 10)).isNull();
+    }
+
+    @Test
+    void registeredListenersReceiveTheirMessagesOnEveryNode() {
+        List<String> received = new ArrayList<>();
+        nodeA.addListener("like:", received::add);
+        nodeB.addListener("like:", received::add);
+
+        nodeA.publish("like:1:2:1");
+        nodeA.publish("other:1");
+
+        assertThat(received).containsExactly("like:1:2:1", "like:1:2:1");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void localEntriesExpireSoonerWhileRedisIsUnavailable() {
+        Cache<String, String> localCache = (Cache<String, String>) ReflectionTestUtils.getField(nodeA, "localCache");
+
+        nodeA.putPost(post(1L, 5));
+        assertThat(expiresAfter(localCache, "post:1")).isGreaterThan(Duration.ofSeconds(2));
+
+        doAnswer(inv -> {
+            throw new RedisConnectionFailureException("down");
+        }).when(valueOps).set(anyString(), anyString(), any(Duration.class));
+        nodeA.putPost(post(2L, 5));
+        nodeA.putPost(post(3L, 5));
+
+        assertThat(expiresAfter(localCache, "post:3")).isLessThanOrEqualTo(Duration.ofSeconds(2));
+        assertThat(nodeA.getPost(3L).getViewCount()).isEqualTo(5);
+    }
+
+    private static Duration expiresAfter(Cache<String, String> cache, String key) {
+        return cache.policy().expireVariably().orElseThrow().getExpiresAfter(key).orElseThrow();
+    }
+}
@@ -0,0 +1,291 @@
+package com.sg.nusiss.gamevaultmicobackendhzy.service.forum;
+
+import com.sg.nusiss.gamevaultmicobackendhzy.constant.forum.ForumMetricName;
+import com.sg.nusiss.gamevaultmicobackendhzy.entity.forum.ForumContent;
+import com.sg.nusiss.gamevaultmicobackendhzy.mapper.forum.ForumContentMapper;
+import org.apache.ibatis.session.ResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+class InMemorySearchEngineTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.now().minusDays(1);
+
+    private InMemorySearchEngine engine;
+    private ForumContentMapper contentMapper;
+
+    /** 数据库中的帖子 */
+    private final Map<Long, ForumContent> table = new LinkedHashMap<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        contentMapper = mock(ForumContentMapper.class);
+        doAnswer(inv -> {
+            ResultHandler<ForumContent> handler = inv.getArgument(0);
+            for (ForumContent post : new ArrayList<>(table.values())) {
+                ResultContext<ForumContent> context = mock(ResultContext.class);
+                when(context.getResultObject()).thenReturn(post);
+                handler.handleResult(context);
+            }
+            return null;
+        }).when(contentMapper).scanActivePostsForIndex(any());
+
+        engine = new InMemorySearchEngine();
+        ReflectionTestUtils.setField(engine, "contentMapper", contentMapper);
+        ReflectionTestUtils.setField(engine, "transactionTemplate",
+                new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        ReflectionTestUtils.setField(engine, "recencyHalfLifeDays", 30.0);
+    }
+
+    private ForumContent post(long id, String title, String body, LocalDateTime createdDate) {
+        ForumContent post = new ForumContent();
+        post.setContentId(id);
+        post.setTitle(title);
+        post.setBodyPlain(body);
+        post.setCreatedDate(createdDate);
+        table.put(id, post);
+        return post;
+    }
+
+    private ForumContent post(long id, String title, String body) {
+        return post(id, title, body, CREATED);
+    }
+
+    private List<Long> searchIds(String keyword, int offset, int limit) {
+        List<Long> ids = new ArrayList<>();
+        for (ForumContent post : engine.search(keyword, offset, limit)) {
+            ids.add(post.getContentId());
+        }
+        return ids;
+    }
+
+    @Test
+    void fallsBackToDatabaseBeforeIndexIsBuilt() {
+        when(contentMapper.countSearchPosts("mod")).thenReturn(3);
+
+        engine.search("mod", 0, 10);
+
+        verify(contentMapper).searchPosts("mod", 0, 10);
+        assertThat(engine.count("mod")).isEqualTo(3);
+    }
+
+    @Test
+    void failedRebuildKeepsDatabaseFallback() {
+        doThrow(new RuntimeException("db down")).when(contentMapper).scanActivePostsForIndex(any());
+
+        engine.rebuild();
+        engine.search("mod", 0, 10);
+
+        verify(contentMapper).searchPosts("mod", 0, 10);
+    }
+
+    @Test
+    void allTermsMustMatch() {
+        post(1, "原神攻略", "新手入门");
+        post(2, "原神同人", "角色攻略");
+        post(3, "塞尔达攻略", "神庙");
+        engine.rebuild();
+
+        assertThat(searchIds("原神 攻略", 0, 10)).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(engine.count("原神 攻略")).isEqualTo(2);
+        assertThat(engine.count("攻略")).isEqualTo(3);
+        assertThat(engine.count("原神 不存在")).isZero();
+        assertThat(searchIds("不存在", 0, 10)).isEmpty();
+        verify(contentMapper, never()).searchPosts(anyString(), anyInt(), anyInt());
+    }
+
+    @Test
+    void titleMatchesOutrankBodyMatches() {
+        post(1, "mod 合集", "新人报到");
+        post(2, "新人报到", "分享一个 mod 合集");
+        post(3, "闲聊", "随便聊聊");
+        engine.rebuild();
+
+        assertThat(searchIds("mod", 0, 10)).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void rarerTermsWeighMore() {
+        // "攻略" 出现在所有帖子里，"速通" 只在帖子 1、2 里；两帖长度相同，罕见词出现更多的排在前面
+        post(1, "", "攻略 速通 速通 速通");
+        post(2, "", "攻略 攻略 攻略 速通");
+        post(3, "", "攻略");
+        post(4, "", "攻略");
+        engine.rebuild();
+
+        assertThat(searchIds("攻略 速通", 0, 10)).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void newerPostsRankHigherWhenRelevanceIsEqual() {
+        post(1, "mod 合集", "", LocalDateTime.now().minusDays(365));
+        post(2, "mod 合集", "", LocalDateTime.now());
+        post(3, "mod 合集", "", LocalDateTime.now().minusDays(10));
+        engine.rebuild();
+
+        assertThat(searchIds("mod", 0, 10)).containsExactly(2L, 3L, 1L);
+    }
+
+    @Test
+    void singleCjkCharacterMatchesBigrams() {
+        post(1, "原神攻略", "");
+        post(2, "神庙", "");
+        post(3, "塞尔达", "");
+        engine.rebuild();
+
+        assertThat(searchIds("神", 0, 10)).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(engine.count("神")).isEqualTo(2);
+
+        // 二元组随帖子修改和删除移出单字的查找表
+        engine.indexPost(post(1, "原魔攻略", ""));
+        engine.removePost(2L);
+        engine.indexPost(post(4, "神", ""));
+        assertThat(searchIds("神", 0, 10)).containsExactly(4L);
+        assertThat(searchIds("魔", 0, 10)).containsExactly(1L);
+    }
+
+    @Test
+    void pagesFollowRankingOrder() {
+        for (long id = 1; id <= 10; id++) {
+            // 越新的帖子分数越高，ID 越小越新
+            post(id, "攻略", "", LocalDateTime.now().minusDays(id));
+        }
+        engine.rebuild();
+
+        assertThat(searchIds("攻略", 0, 3)).containsExactly(1L, 2L, 3L);
+        assertThat(searchIds("攻略", 3, 3)).containsExactly(4L, 5L, 6L);
+        assertThat(searchIds("攻略", 9, 3)).containsExactly(10L);
+        assertThat(searchIds("攻略", 10, 3)).isEmpty();
+    }
+
+    @Test
+    void incrementalChangesUpdateTheIndex() {
+        post(1, "原神攻略", "");
+        engine.rebuild();
+
+        engine.indexPost(post(2, "原神攻略合集", ""));
+        assertThat(engine.count("攻略")).isEqualTo(2);
+
+        // 修改标题后旧词不再命中
+        engine.indexPost(post(1, "塞尔达", ""));
+        assertThat(searchIds("攻略", 0, 10)).containsExactly(2L);
+        assertThat(searchIds("塞尔达", 0, 10)).containsExactly(1L);
+
+        engine.removePost(2L);
+        assertThat(engine.count("攻略")).isZero();
+    }
+
+    @Test
+    void changesDuringRebuildAreReplayed() {
+        post(1, "原神攻略", "");
+        doAnswer(inv -> {
+            ResultHandler<ForumContent> handler = inv.getArgument(0);
+            // 扫描进行中（已读到帖子 1）时另一个请求新增帖子 2、删除帖子 1
+            ResultContext<ForumContent> context = mock(ResultContext.class);
+            when(context.getResultObject()).thenReturn(table.get(1L));
+            handler.handleResult(context);
+            engine.indexPost(post(2, "原神攻略合集", ""));
+            engine.removePost(1L);
+            return null;
+        }).when(contentMapper).scanActivePostsForIndex(any());
+
+        engine.rebuild();
+
+        assertThat(searchIds("攻略", 0, 10)).containsExactly(2L);
+    }
+
+    @Test
+    void resultsComeFromTheIndexWithoutQueryingTheDatabase() {
+        ForumContent post = post(1, "原神攻略", "正".repeat(150) + "𠀀".repeat(100));
+        post.setAuthorId(7L);
+        post.setViewCount(10);
+        post.setLikeCount(3);
+        post.setReplyCount(2);
+        engine.rebuild();
+        verify(contentMapper).scanActivePostsForIndex(any());
+
+        List<ForumContent> results = engine.search("攻略", 0, 10);
+        engine.count("攻略");
+
+        verifyNoMoreInteractions(contentMapper);
+        ForumContent summary = results.get(0);
+        assertThat(summary.getContentId()).isEqualTo(1L);
+        assertThat(summary.getContentType()).isEqualTo("post");
+        assertThat(summary.getStatus()).isEqualTo("active");
+        assertThat(summary.getTitle()).isEqualTo("原神攻略");
+        assertThat(summary.getAuthorId()).isEqualTo(7L);
+        assertThat(summary.getCreatedDate()).isEqualTo(CREATED);
+        // 摘要与 LEFT(body_plain, 200) 一致：按码点截取，不拆开扩展区汉字
+        assertThat(summary.getBodyPlain()).isEqualTo("正".repeat(150) + "𠀀".repeat(50));
+        assertThat(summary.getViewCount()).isEqualTo(10);
+        assertThat(summary.getLikeCount()).isEqualTo(3);
+        assertThat(summary.getReplyCount()).isEqualTo(2);
+    }
+
+    @Test
+    void countChangesAreAddedToResults() {
+        post(1, "原神攻略", "");
+        engine.rebuild();
+
+        engine.onCountChanged(1L, ForumMetricName.VIEW_COUNT, 1);
+        engine.onCountChanged(1L, ForumMetricName.VIEW_COUNT, 1);
+        engine.onCountChanged(1L, ForumMetricName.LIKE_COUNT, 1);
+        engine.onCountChanged(1L, ForumMetricName.REPLY_COUNT, 1);
+        engine.onCountChanged(1L, ForumMetricName.REPLY_COUNT, -1);
+        engine.onCountChanged(99L, ForumMetricName.VIEW_COUNT, 1);
+
+        ForumContent summary = engine.search("攻略", 0, 10).get(0);
+        assertThat(summary.getViewCount()).isEqualTo(2);
+        assertThat(summary.getLikeCount()).isEqualTo(1);
+        assertThat(summary.getReplyCount()).isZero();
+
+        // 修改帖子后沿用累加的计数
+        engine.indexPost(post(1, "原神攻略合集", ""));
+        assertThat(engine.search("攻略", 0, 10).get(0).getViewCount()).isEqualTo(2);
+    }
+
+    @Test
+    void countChangesDuringRebuildAreReplayed() {
+        post(1, "原神攻略", "");
+        engine.rebuild();
+        engine.onCountChanged(1L, ForumMetricName.VIEW_COUNT, 5);
+
+        doAnswer(inv -> {
+            ResultHandler<ForumContent> handler = inv.getArgument(0);
+            ResultContext<ForumContent> context = mock(ResultContext.class);
+            when(context.getResultObject()).thenReturn(table.get(1L));
+            handler.handleResult(context);
+            // 扫描读到的计数是重建开始时的值，之后的浏览补到新索引上
+            engine.onCountChanged(1L, ForumMetricName.VIEW_COUNT, 1);
+            return null;
+        }).when(contentMapper).scanActivePostsForIndex(any());
+        table.get(1L).setViewCount(5);
+
+        engine.rebuild();
+
+        assertThat(engine.search("攻略", 0, 10).get(0).getViewCount()).isEqualTo(6);
+    }
+}
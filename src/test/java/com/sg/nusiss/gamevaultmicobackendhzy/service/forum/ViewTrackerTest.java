@@ -0,0 +1,88 @@
+package com.sg.nusiss.gamevaultmicobackendhzy.service.forum;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ViewTrackerTest {
+
+    private ViewTracker viewTracker;
+
+    @BeforeEach
+    void setUp() {
+        viewTracker = new ViewTracker();
+    }
+
+    /**
+     * 把所有分段的时间桶往回拨，相当于时间过去了 windows 个窗口
+     */
+    private void elapseWindows(long windows) {
+        Object[] stripes = (Object[]) ReflectionTestUtils.getField(viewTracker, "stripes");
+        for (Object stripe : stripes) {
+            long window = (long) ReflectionTestUtils.getField(stripe, "window");
+            ReflectionTestUtils.setField(stripe, "window", window - windows);
+        }
+    }
+
+    @Test
+    void repeatedViewIsCountedOnce() {
+        assertThat(viewTracker.shouldIncrementView(1L, null, 10L)).isTrue();
+        assertThat(viewTracker.shouldIncrementView(1L, null, 10L)).isFalse();
+
+        assertThat(viewTracker.shouldIncrementView(1L, null, 11L)).isTrue();
+        assertThat(viewTracker.shouldIncrementView(2L, null, 10L)).isTrue();
+        assertThat(viewTracker.getRecordCount()).isEqualTo(3);
+    }
+
+    @Test
+    void anonymousViewsAreTrackedBySession() {
+        assertThat(viewTracker.shouldIncrementView(null, "session-a", 10L)).isTrue();
+        assertThat(viewTracker.shouldIncrementView(null, "session-a", 10L)).isFalse();
+        assertThat(viewTracker.shouldIncrementView(null, "session-b", 10L)).isTrue();
+    }
+
+    @Test
+    void sessionsDoNotCollideWithUserIds() {
+        // 会话哈希与某个用户ID数值相同，也不算同一个浏览者
+        String session = "session-a";
+        long sameAsHash = session.hashCode() & 0xFFFFFFFFL;
+
+        assertThat(viewTracker.shouldIncrementView(null, session, 10L)).isTrue();
+        assertThat(viewTracker.shouldIncrementView(sameAsHash, null, 10L)).isTrue();
+    }
+
+    @Test
+    void viewInPreviousWindowIsStillDeduplicated() {
+        viewTracker.shouldIncrementView(1L, null, 10L);
+
+        elapseWindows(1);
+
+        assertThat(viewTracker.shouldIncrementView(1L, null, 10L)).isFalse();
+    }
+
+    @Test
+    void viewExpiresAfterTwoWindows() {
+        viewTracker.shouldIncrementView(1L, null, 10L);
+
+        elapseWindows(1);
+        viewTracker.cleanExpiredRecords();
+        elapseWindows(1);
+
+        assertThat(viewTracker.shouldIncrementView(1L, null, 10L)).isTrue();
+    }
+
+    @Test
+    void idleStripesDropExpiredRecords() {
+        for (long postId = 1; postId <= 1_000; postId++) {
+            viewTracker.shouldIncrementView(1L, null, postId);
+        }
+        assertThat(viewTracker.getRecordCount()).isEqualTo(1_000);
+
+        elapseWindows(2);
+        viewTracker.cleanExpiredRecords();
+
+        assertThat(viewTracker.getRecordCount()).isZero();
+    }
+}
@@ -0,0 +1,83 @@
+package com.sg.nusiss.gamevaultmicobackendhzy.util.forum;
+
+import com.sg.nusiss.gamevaultmicobackendhzy.entity.forum.ForumContent;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FeedCursorTest {
+
+    private static ForumContent post(LocalDateTime createdDate, Long contentId) {
+        ForumContent post = new ForumContent();
+        post.setCreatedDate(createdDate);
+        post.setContentId(contentId);
+        return post;
+    }
+
+    private static String encodeRaw(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void decodeReversesEncode() {
+        LocalDateTime createdDate = LocalDateTime.of(2024, 3, 1, 12, 30, 45, 123_456_000);
+
+        FeedCursor cursor = FeedCursor.decode(FeedCursor.encode(post(createdDate, 42L)));
+
+        assertThat(cursor.getCreatedDate()).isEqualTo(createdDate);
+        assertThat(cursor.getContentId()).isEqualTo(42L);
+    }
+
+    @Test
+    void keepsWholeSecondsAndLargeIds() {
+        LocalDateTime createdDate = LocalDateTime.of(2024, 3, 1, 0, 0);
+
+        FeedCursor cursor = FeedCursor.decode(FeedCursor.encode(post(createdDate, Long.MAX_VALUE)));
+
+        assertThat(cursor.getCreatedDate()).isEqualTo(createdDate);
+        assertThat(cursor.getContentId()).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    void encodedCursorIsUrlSafe() {
+        String cursor = FeedCursor.encode(post(LocalDateTime.of(2024, 12, 31, 23, 59, 59), 1L));
+
+        assertThat(cursor).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void postsWithoutPositionHaveNoCursor() {
+        assertThat(FeedCursor.encode(null)).isNull();
+        assertThat(FeedCursor.encode(post(null, 1L))).isNull();
+        assertThat(FeedCursor.encode(post(LocalDateTime.now(), null))).isNull();
+    }
+
+    @Test
+    void blankCursorMeansFirstPage() {
+        assertThat(FeedCursor.decode(null)).isNull();
+        assertThat(FeedCursor.decode("")).isNull();
+        assertThat(FeedCursor.decode("  ")).isNull();
+    }
+
+    @Test
+    void malformedCursorsAreRejected() {
+        String[] malformed = {
+                "!!!",
+                encodeRaw("2024-03-01T12:00"),
+                encodeRaw("|42"),
+                encodeRaw("2024-03-01T12:00|"),
+                encodeRaw("2024-03-01T12:00|abc"),
+                encodeRaw("not-a-date|42"),
+        };
+        for (String cursor : malformed) {
+            assertThatThrownBy(() -> FeedCursor.decode(cursor)).as(cursor)
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("无效的游标");
+        }
+    }
+}
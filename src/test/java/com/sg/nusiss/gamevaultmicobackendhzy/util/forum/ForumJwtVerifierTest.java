@@ -0,0 +1,171 @@
+package com.sg.nusiss.gamevaultmicobackendhzy.util.forum;
+
+import com.sg.nusiss.gamevaultmicobackendhzy.config.auth.RsaKeyProperties;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.Signature;
+import java.time.Instant;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ForumJwtVerifierTest {
+
+    private static final String RS256_HEADER = "{\"alg\":\"RS256\",\"typ\":\"JWT\"}";
+
+    private static KeyPair keyPair;
+    private static KeyPair otherKeyPair;
+    private static ForumJwtVerifier verifier;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        keyPair = generator.generateKeyPair();
+        otherKeyPair = generator.generateKeyPair();
+
+        String pem = "-----BEGIN PUBLIC KEY-----\n"
+                + Base64.getMimeEncoder().encodeToString(keyPair.getPublic().getEncoded())
+                + "\n-----END PUBLIC KEY-----\n";
+        RsaKeyProperties properties = new RsaKeyProperties();
+        properties.setPublicKey(new ByteArrayResource(pem.getBytes(StandardCharsets.US_ASCII)));
+
+        verifier = new ForumJwtVerifier();
+        ReflectionTestUtils.setField(verifier, "rsaKeyProperties", properties);
+        verifier.init();
+    }
+
+    private static String encode(String json) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String sign(String header, String payload, PrivateKey key) throws Exception {
+        String signingInput = encode(header) + "." + encode(payload);
+        Signature signature = Signature.getInstance("SHA256withRSA");
+        signature.initSign(key);
+        signature.update(signingInput.getBytes(StandardCharsets.US_ASCII));
+        return signingInput + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(signature.sign());
+    }
+
+    private static String rs256(String payload) throws Exception {
+        return sign(RS256_HEADER, payload, keyPair.getPrivate());
+    }
+
+    private static String claims(String sub, long uid, long exp) {
+        return "{\"sub\":\"" + sub + "\",\"uid\":" + uid + ",\"exp\":" + exp + ",\"roles\":[\"USER\"]}";
+    }
+
+    private static long inSeconds(long seconds) {
+        return Instant.now().getEpochSecond() + seconds;
+    }
+
+    @Test
+    void acceptsValidToken() throws Exception {
+        long exp = inSeconds(3600);
+
+        ForumJwtUtil.TokenInfo info = verifier.verify(rs256(claims("alice", 42, exp)));
+
+        assertThat(info.valid).isTrue();
+        assertThat(info.userId).isEqualTo(42L);
+        assertThat(info.username).isEqualTo("alice");
+        assertThat(info.expiresAt).isEqualTo(Instant.ofEpochSecond(exp));
+    }
+
+    @Test
+    void acceptsUserIdClaimWhenUidIsMissing() throws Exception {
+        String payload = "{\"sub\":\"bob\",\"userId\":7,\"exp\":" + inSeconds(60) + "}";
+
+        ForumJwtUtil.TokenInfo info = verifier.verify(rs256(payload));
+
+        assertThat(info.valid).isTrue();
+        assertThat(info.userId).isEqualTo(7L);
+    }
+
+    @Test
+    void appliesSixtySecondClockSkewToExpAndNbf() throws Exception {
+        assertThat(verifier.verify(rs256(claims("alice", 1, inSeconds(-30)))).valid).isTrue();
+        assertThat(verifier.verify(rs256(claims("alice", 1, inSeconds(-120)))).valid).isFalse();
+
+        String notYet = "{\"sub\":\"alice\",\"uid\":1,\"nbf\":" + inSeconds(120) + "}";
+        assertThat(verifier.verify(rs256(notYet)).valid).isFalse();
+        String almost = "{\"sub\":\"alice\",\"uid\":1,\"nbf\":" + inSeconds(30) + "}";
+        assertThat(verifier.verify(rs256(almost)).valid).isTrue();
+    }
+
+    @Test
+    void rejectsTamperedPayloadAndSignature() throws Exception {
+        String token = rs256(claims("alice", 42, inSeconds(3600)));
+        String[] parts = token.split("\\.");
+
+        String otherPayload = parts[0] + "." + encode(claims("alice", 1, inSeconds(3600))) + "." + parts[2];
+        assertThat(verifier.verify(otherPayload).valid).isFalse();
+
+        char original = parts[2].charAt(10);
+        String flipped = parts[0] + "." + parts[1] + "." + parts[2].substring(0, 10)
+                + (original == 'A' ? 'B' : 'A') + parts[2].substring(11);
+        assertThat(verifier.verify(flipped).valid).isFalse();
+    }
+
+    @Test
+    void rejectsTokenSignedByAnotherKey() throws Exception {
+        String token = sign(RS256_HEADER, claims("alice", 42, inSeconds(3600)), otherKeyPair.getPrivate());
+
+        assertThat(verifier.verify(token).valid).isFalse();
+    }
+
+    @Test
+    void rejectsOtherAlgorithmsAndCriticalHeaders() throws Exception {
+        String payload = claims("alice", 42, inSeconds(3600));
+
+        String none = encode("{\"alg\":\"none\"}") + "." + encode(payload) + ".";
+        assertThat(verifier.verify(none).valid).isFalse();
+
+        // 用公钥作为 HMAC 密钥的算法混淆
+        String signingInput = encode("{\"alg\":\"HS256\"}") + "." + encode(payload);
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(keyPair.getPublic().getEncoded(), "HmacSHA256"));
+        String hs256 = signingInput + "." + Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(mac.doFinal(signingInput.getBytes(StandardCharsets.US_ASCII)));
+        assertThat(verifier.verify(hs256).valid).isFalse();
+
+        String crit = sign("{\"alg\":\"RS256\",\"crit\":[\"exp\"]}", payload, keyPair.getPrivate());
+        assertThat(verifier.verify(crit).valid).isFalse();
+    }
+
+    @Test
+    void rejectsTokensWithoutSubjectOrUserId() throws Exception {
+        assertThat(verifier.verify(rs256("{\"uid\":42,\"exp\":" + inSeconds(60) + "}")).valid).isFalse();
+        assertThat(verifier.verify(rs256("{\"sub\":\"alice\",\"exp\":" + inSeconds(60) + "}")).valid).isFalse();
+        assertThat(verifier.verify(rs256("{\"sub\":\"alice\",\"uid\":\"42\"}")).valid).isFalse();
+        assertThat(verifier.verify(rs256("[1,2]")).valid).isFalse();
+    }
+
+    @Test
+    void rejectsMalformedTokensAndRecovers() throws Exception {
+        String valid = rs256(claims("alice", 42, inSeconds(3600)));
+        String[] parts = valid.split("\\.");
+        String[] garbage = {
+                "", "abc", "a.b", ".b.c", "a.b.c.d", "!!.??.##",
+                parts[0] + "." + parts[1],
+                parts[0] + "." + parts[1] + ".",
+                parts[0] + "." + parts[1] + ".AAAA",
+                encode("not json") + "." + parts[1] + "." + parts[2],
+                parts[0] + "." + encode("{\"sub\":") + "." + parts[2],
+        };
+        for (String token : garbage) {
+            assertThat(verifier.verify(token).valid).as(token).isFalse();
+        }
+
+        // 签名格式错误后同一线程仍能验证正常的 Token
+        assertThat(verifier.verify(valid).valid).isTrue();
+    }
+}
@@ -0,0 +1,125 @@
+package com.sg.nusiss.gamevaultmicobackendhzy.util.forum;
+
+import org.hashids.Hashids;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * HashIdCodec 与 Hashids 1.0.3 的逐字符一致性
+ */
+class HashIdCodecTest {
+
+    private static final String[] SALTS = {"", "forum-backend-2024-post", "forum-backend-2024-user", "a"};
+    private static final int[] MIN_LENGTHS = {0, 6, 8, 30};
+
+    @Test
+    void encodeMatchesHashids() {
+        Random random = new Random(42);
+        for (String salt : SALTS) {
+            for (int minLength : MIN_LENGTHS) {
+                Hashids hashids = new Hashids(salt, minLength);
+                HashIdCodec codec = new HashIdCodec(salt, minLength);
+                for (long id = 0; id < 2_000; id++) {
+                    assertThat(codec.encode(id)).as("salt=%s min=%d id=%d", salt, minLength, id)
+                            .isEqualTo(hashids.encode(id));
+                }
+                for (int i = 0; i < 2_000; i++) {
+                    long id = (long) (random.nextDouble() * HashIdCodec.MAX_NUMBER);
+                    assertThat(codec.encode(id)).as("salt=%s min=%d id=%d", salt, minLength, id)
+                            .isEqualTo(hashids.encode(id));
+                }
+                assertThat(codec.encode(HashIdCodec.MAX_NUMBER)).isEqualTo(hashids.encode(HashIdCodec.MAX_NUMBER));
+            }
+        }
+    }
+
+    @Test
+    void decodeReversesEncode() {
+        Random random = new Random(7);
+        for (String salt : SALTS) {
+            for (int minLength : MIN_LENGTHS) {
+                HashIdCodec codec = new HashIdCodec(salt, minLength);
+                for (int i = 0; i < 2_000; i++) {
+                    long id = i < 1_000 ? i : (long) (random.nextDouble() * HashIdCodec.MAX_NUMBER);
+                    assertThat(codec.decode(codec.encode(id))).isEqualTo(id);
+                }
+            }
+        }
+    }
+
+    @Test
+    void decodeOfArbitraryStringsMatchesHashids() {
+        Random random = new Random(1);
+        String chars = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ1234567890-_!";
+        for (String salt : SALTS) {
+            for (int minLength : MIN_LENGTHS) {
+                Hashids hashids = new Hashids(salt, minLength);
+                HashIdCodec codec = new HashIdCodec(salt, minLength);
+                for (int i = 0; i < 5_000; i++) {
+                    String hash;
+                    if (i % 2 == 0) {
+                        // 合法哈希改动一个字符
+                        char[] valid = hashids.encode(random.nextInt(100_000)).toCharArray();
+                        valid[random.nextInt(valid.length)] = chars.charAt(random.nextInt(chars.length()));
+                        hash = new String(valid);
+                    } else {
+                        StringBuilder builder = new StringBuilder();
+                        for (int j = 1 + random.nextInt(12); j > 0; j--) {
+                            builder.append(chars.charAt(random.nextInt(chars.length())));
+                        }
+                        hash = builder.toString();
+                    }
+                    long id = codec.decode(hash);
+                    if (id == -2) {
+                        // 含分隔符的哈希交给 Hashids（与 HashIdUtil 相同）
+                        id = hashidsDecode(hashids, hash);
+                    }
+                    assertThat(id).as("salt=%s min=%d hash=%s", salt, minLength, hash)
+                            .isEqualTo(hashidsDecode(hashids, hash));
+                }
+            }
+        }
+    }
+
+    /**
+     * Hashids 的解码结果：取第一个ID，无效返回 -1
+     */
+    private static long hashidsDecode(Hashids hashids, String hash) {
+        try {
+            long[] numbers = hashids.decode(hash);
+            return numbers.length > 0 ? numbers[0] : -1;
+        } catch (RuntimeException e) {
+            return -1;
+        }
+    }
+
+    @Test
+    void multiIdHashIsLeftToHashids() {
+        Hashids hashids = new Hashids("forum-backend-2024-post", 8);
+        HashIdCodec codec = new HashIdCodec("forum-backend-2024-post", 8);
+
+        assertThat(codec.decode(hashids.encode(1, 2, 3))).isEqualTo(-2);
+    }
+
+    @Test
+    void hashFromAnotherSaltIsRejected() {
+        HashIdCodec post = new HashIdCodec("forum-backend-2024-post", 8);
+        HashIdCodec user = new HashIdCodec("forum-backend-2024-user", 8);
+
+        assertThat(post.decode(user.encode(123))).isEqualTo(-1);
+        assertThat(post.decode("")).isEqualTo(-1);
+    }
+
+    @Test
+    void outOfRangeIdsFollowHashids() {
+        HashIdCodec codec = new HashIdCodec("salt", 8);
+
+        assertThat(codec.encode(-1)).isEmpty();
+        assertThatThrownBy(() -> codec.encode(HashIdCodec.MAX_NUMBER + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
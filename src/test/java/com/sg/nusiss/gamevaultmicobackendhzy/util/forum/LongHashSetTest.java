@@ -0,0 +1,75 @@
+package com.sg.nusiss.gamevaultmicobackendhzy.util.forum;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LongHashSetTest {
+
+    @Test
+    void addReportsWhetherKeyWasNew() {
+        LongHashSet set = new LongHashSet(4);
+
+        assertThat(set.add(42L)).isTrue();
+        assertThat(set.add(42L)).isFalse();
+        assertThat(set.contains(42L)).isTrue();
+        assertThat(set.contains(43L)).isFalse();
+        assertThat(set.size()).isEqualTo(1);
+    }
+
+    @Test
+    void negativeAndExtremeKeysAreStored() {
+        LongHashSet set = new LongHashSet(4);
+        long[] keys = {-1L, Long.MIN_VALUE, Long.MAX_VALUE, 1L};
+        for (long key : keys) {
+            assertThat(set.add(key)).isTrue();
+        }
+        for (long key : keys) {
+            assertThat(set.contains(key)).isTrue();
+        }
+        assertThat(set.size()).isEqualTo(keys.length);
+    }
+
+    @Test
+    void matchesHashSetAcrossResizes() {
+        // 从很小的容量开始，多次扩容后结果与 HashSet 一致
+        LongHashSet set = new LongHashSet(1);
+        Set<Long> expected = new HashSet<>();
+        Random random = new Random(3);
+        for (int i = 0; i < 50_000; i++) {
+            // 小范围内取值以产生大量重复
+            long key = random.nextInt(30_000) + 1L;
+            assertThat(set.add(key)).isEqualTo(expected.add(key));
+        }
+        assertThat(set.size()).isEqualTo(expected.size());
+        for (long key = 1; key <= 30_000; key++) {
+            assertThat(set.contains(key)).isEqualTo(expected.contains(key));
+        }
+    }
+
+    @Test
+    void keysDifferingOnlyInHighBitsAreSpread() {
+        // 只有高位不同的键经过哈希打散后依然能正确插入和查找
+        LongHashSet set = new LongHashSet(16);
+        for (long key = 1; key <= 10_000; key++) {
+            assertThat(set.add(key << 32)).isTrue();
+        }
+        for (long key = 1; key <= 10_000; key++) {
+            assertThat(set.contains(key << 32)).isTrue();
+            assertThat(set.contains((key << 32) + 1)).isFalse();
+        }
+    }
+
+    @Test
+    void zeroIsRejected() {
+        LongHashSet set = new LongHashSet(4);
+
+        assertThatThrownBy(() -> set.add(0L)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> set.contains(0L)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
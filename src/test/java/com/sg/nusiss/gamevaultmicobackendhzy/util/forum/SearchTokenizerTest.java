@@ -0,0 +1,61 @@
+package com.sg.nusiss.gamevaultmicobackendhzy.util.forum;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchTokenizerTest {
+
+    @Test
+    void wordsAreLowercasedAndSplitByPunctuation() {
+        assertThat(SearchTokenizer.tokenize("Hello, World! GTA5 mod-pack"))
+                .containsExactly("hello", "world", "gta5", "mod", "pack");
+    }
+
+    @Test
+    void cjkRunsAreSplitIntoBigrams() {
+        assertThat(SearchTokenizer.tokenize("原神攻略")).containsExactly("原神", "神攻", "攻略");
+        assertThat(SearchTokenizer.tokenize("攻略")).containsExactly("攻略");
+    }
+
+    @Test
+    void singleCjkCharacterIsKept() {
+        assertThat(SearchTokenizer.tokenize("神")).containsExactly("神");
+        assertThat(SearchTokenizer.tokenize("a 神 b")).containsExactly("a", "神", "b");
+    }
+
+    @Test
+    void mixedTextSplitsAtScriptBoundaries() {
+        assertThat(SearchTokenizer.tokenize("GTA5攻略!新手")).containsExactly("gta5", "攻略", "新手");
+        // 中日韩文字与字母之间不形成二元组
+        assertThat(SearchTokenizer.tokenize("神v4.0版本")).containsExactly("神", "v4", "0", "版本");
+    }
+
+    @Test
+    void duplicatesAreKeptInOrder() {
+        assertThat(SearchTokenizer.tokenize("mod MOD 攻略攻略"))
+                .containsExactly("mod", "mod", "攻略", "略攻", "攻略");
+    }
+
+    @Test
+    void japaneseAndKoreanAreTreatedAsCjk() {
+        assertThat(SearchTokenizer.tokenize("カタカナ")).containsExactly("カタ", "タカ", "カナ");
+        assertThat(SearchTokenizer.tokenize("게임")).containsExactly("게임");
+    }
+
+    @Test
+    void emptyInputYieldsNoTokens() {
+        assertThat(SearchTokenizer.tokenize(null)).isEmpty();
+        assertThat(SearchTokenizer.tokenize("")).isEmpty();
+        assertThat(SearchTokenizer.tokenize(" ,.!? ")).isEmpty();
+    }
+
+    @Test
+    void isSingleCjk() {
+        assertThat(SearchTokenizer.isSingleCjk("神")).isTrue();
+        assertThat(SearchTokenizer.isSingleCjk("原神")).isFalse();
+        assertThat(SearchTokenizer.isSingleCjk("a")).isFalse();
+        // 扩展区汉字占两个 char，仍是单字
+        assertThat(SearchTokenizer.isSingleCjk("𠀀")).isTrue();
+    }
+}